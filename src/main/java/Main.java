@@ -1,8 +1,16 @@
+import graph.core.CriticalPathResult;
+import graph.core.EngineSelector;
 import graph.core.Graph;
-import graph.scc.SCCAlgorithm;
+import graph.core.GraphShape;
+import graph.core.PathEngine;
+import graph.core.SCCResult;
+import graph.core.SccEngine;
+import graph.core.TopoEngine;
+import graph.core.TopoResult;
+import graph.dist.AnalysisCoordinator;
+import graph.dist.GraphPartitioner;
 import graph.scc.CondensationGraph;
-import graph.topo.TopologicalSort;
-import graph.dagsp.DAGShortestPath;
+import graph.scc.TransitiveReduction;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import java.io.*;
@@ -16,11 +24,32 @@ public class Main {
 
         try {
             Graph graph = readGraphFromFile(inputFile);
-            System.out.println("Loaded graph with " + graph.getNodes().size() + " nodes");
+            GraphShape shape = GraphShape.of(graph);
+            System.out.println("Loaded graph with " + graph.getNodes().size() + " nodes (" + shape + ")");
+
+            // распределённый режим: части графа анализируются в отдельных JVM
+            int workers = Integer.getInteger("graph.workers", 1);
+            List<int[]> partitions = workers > 1 ? new GraphPartitioner().partition(graph, workers) : List.of();
+            if (workers > 1 && partitions.size() == 1) {
+                // граф делится только по слабо связным частям; одна часть - воркеры ничего не дадут
+                System.out.println("Graph is a single connected piece, analyzing in this process instead of "
+                        + workers + " workers");
+            } else if (workers > 1) {
+                var distributed = new AnalysisCoordinator(workers).analyze(graph, partitions);
+                System.out.println("Analyzed in " + distributed.workers + " worker processes ("
+                        + distributed.wallTimeMs + " ms)");
+                System.out.println("Found " + distributed.scc.components.size() + " SCCs");
+                System.out.println("Topological order: " + distributed.topo.order);
+                System.out.println("Critical path length: " + distributed.criticalPath.length);
+                System.out.println("Critical path: " + distributed.criticalPath.path);
+                saveResults(distributed.scc, distributed.topo, distributed.criticalPath, outputFile);
+                System.out.println("Results saved to " + outputFile);
+                return;
+            }
 
             // находим скк
-            System.out.println("Finding Strongly Connected Components...");
-            SCCAlgorithm sccAlgo = new SCCAlgorithm();
+            SccEngine sccAlgo = EngineSelector.selectScc(shape);
+            System.out.println("Finding Strongly Connected Components (" + sccAlgo.name() + ")...");
             var sccResult = sccAlgo.findSCC(graph);
 
             System.out.println("Found " + sccResult.components.size() + " SCCs");
@@ -30,17 +59,26 @@ public class Main {
 
             // строим график конденсации
             System.out.println("Building condensation graph...");
-            CondensationGraph condGraph = new CondensationGraph(sccResult.components, graph);
+            Graph condGraph = new CondensationGraph(sccResult.components, graph);
+
+            // по желанию убираем транзитивно избыточные рёбра конденсации
+            if (Boolean.getBoolean("graph.reduce")) {
+                var reduction = new TransitiveReduction().reduce(condGraph, true);
+                System.out.println("Transitive reduction removed " + reduction.removedEdges + " of "
+                        + condGraph.getEdgeCount() + " edges");
+                condGraph = reduction.reduced;
+            }
+            GraphShape condShape = GraphShape.ofDag(condGraph);
 
             // топологическая сортировка на графе конденсации
-            System.out.println("Performing topological sort...");
-            TopologicalSort topoAlgo = new TopologicalSort();
-            var topoResult = topoAlgo.kahnTopologicalSort(condGraph);
+            TopoEngine topoAlgo = EngineSelector.selectTopo(condShape);
+            System.out.println("Performing topological sort (" + topoAlgo.name() + ")...");
+            var topoResult = topoAlgo.sort(condGraph);
             System.out.println("Topological order: " + topoResult.order);
 
             // самые короткий и длинные пути
-            System.out.println("Finding critical path...");
-            DAGShortestPath spAlgo = new DAGShortestPath();
+            PathEngine spAlgo = EngineSelector.selectPath(condShape);
+            System.out.println("Finding critical path (" + spAlgo.name() + ")...");
             var criticalPathResult = spAlgo.findCriticalPath(condGraph);
 
             System.out.println("Critical path length: " + criticalPathResult.length);
@@ -72,9 +110,9 @@ public class Main {
         }
     }
 
-    private static void saveResults(SCCAlgorithm.SCCResult sccResult,
-                                    TopologicalSort.TopoResult topoResult,
-                                    DAGShortestPath.CriticalPathResult criticalPathResult,
+    private static void saveResults(SCCResult sccResult,
+                                    TopoResult topoResult,
+                                    CriticalPathResult criticalPathResult,
                                     String filename) throws IOException {
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
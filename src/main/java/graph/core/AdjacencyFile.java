@@ -0,0 +1,40 @@
+package graph.core;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Source-sorted adjacency on disk, as produced by EdgeFile.sortBySource: an offsets file
+// of nodeCount + 1 longs and an edges file of (to, weight) int pairs. Both are mapped,
+// so lookups cost page reads rather than heap.
+public class AdjacencyFile {
+    private final int nodeCount;
+    private final long edgeCount;
+    private final MappedFile offsets;
+    private final MappedFile edges;
+
+    private AdjacencyFile(MappedFile offsets, MappedFile edges) {
+        this.offsets = offsets;
+        this.edges = edges;
+        this.nodeCount = (int) (offsets.size() / 8) - 1;
+        this.edgeCount = edges.size() / 8;
+    }
+
+    public static AdjacencyFile open(Path offsetsFile, Path edgesFile) throws IOException {
+        return new AdjacencyFile(MappedFile.open(offsetsFile), MappedFile.open(edgesFile));
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+    public int getOutDegree(int node) {
+        return (int) (offsets.getLong((node + 1L) << 3) - offsets.getLong((long) node << 3));
+    }
+    public int getEdgeTarget(int node, int edgeIndex) {
+        return edges.getInt((offsets.getLong((long) node << 3) + edgeIndex) << 3);
+    }
+    public int getEdgeWeight(int node, int edgeIndex) {
+        return edges.getInt(((offsets.getLong((long) node << 3) + edgeIndex) << 3) + 4);
+    }
+}
@@ -0,0 +1,18 @@
+package graph.core;
+
+import java.util.*;
+
+public class CriticalPathResult {
+    public final List<String> path;
+    public final int length;
+    public final double executionTimeMs;
+    public final long operationsCount;
+
+    public CriticalPathResult(List<String> path, int length,
+                              double executionTimeMs, long operationsCount) {
+        this.path = path;
+        this.length = length;
+        this.executionTimeMs = executionTimeMs;
+        this.operationsCount = operationsCount;
+    }
+}
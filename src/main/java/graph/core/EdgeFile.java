@@ -0,0 +1,167 @@
+package graph.core;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Flat binary edge list used by the out-of-core algorithms: a header (magic, node count)
+// followed by (from, to, weight) int records in any order. Node ids are 0..nodeCount-1,
+// names stay with whoever wrote the file.
+public class EdgeFile {
+    private static final int MAGIC = 0x45444745;
+    public static final int DEFAULT_RUN_SIZE = 1 << 22;
+
+    public static void write(Graph graph, Path file) throws IOException {
+        try (Writer writer = new Writer(file, graph.getNodeCount())) {
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                int degree = graph.getOutDegree(node);
+                for (int i = 0; i < degree; i++) {
+                    writer.write(node, graph.getEdgeTarget(node, i), graph.getEdgeWeight(node, i));
+                }
+            }
+        }
+    }
+
+    // Sorts the edge file by source with bounded memory (runSize records per in-memory run,
+    // then a k-way merge) and writes <name>.idx / <name>.adj next to each other in workDir.
+    // Edges of one source keep their file order.
+    public static AdjacencyFile sortBySource(Path edgeFile, Path workDir, int runSize) throws IOException {
+        String name = edgeFile.getFileName().toString();
+        Path offsetsFile = workDir.resolve(name + ".idx");
+        Path edgesFile = workDir.resolve(name + ".adj");
+        List<Path> runs = new ArrayList<>();
+        int nodeCount;
+
+        try (DataInputStream in = openReader(edgeFile)) {
+            nodeCount = in.readInt();
+            long[] keys = new long[runSize];
+            int[] records = new int[runSize * 3];
+            int size;
+            while ((size = readRun(in, records, runSize)) > 0) {
+                // Low half of the key is the position in the run, which makes the sort stable
+                for (int i = 0; i < size; i++) {
+                    keys[i] = ((long) records[i * 3] << 32) | i;
+                }
+                Arrays.sort(keys, 0, size);
+                Path run = Files.createTempFile(workDir, name, ".run");
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                    for (int i = 0; i < size; i++) {
+                        int at = (int) keys[i] * 3;
+                        out.writeInt(records[at]);
+                        out.writeInt(records[at + 1]);
+                        out.writeInt(records[at + 2]);
+                    }
+                }
+                runs.add(run);
+            }
+        }
+
+        try {
+            merge(runs, nodeCount, offsetsFile, edgesFile);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        return AdjacencyFile.open(offsetsFile, edgesFile);
+    }
+
+    private static void merge(List<Path> runs, int nodeCount, Path offsetsFile, Path edgesFile) throws IOException {
+        List<DataInputStream> readers = new ArrayList<>();
+        // Heads are (from, run index) so equal sources drain in run order
+        PriorityQueue<long[]> heads = new PriorityQueue<>(Comparator
+                .<long[]>comparingLong(head -> head[0]).thenComparingLong(head -> head[1]));
+        try (DataOutputStream offsets = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(offsetsFile), 1 << 16));
+             DataOutputStream edges = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(edgesFile), 1 << 16))) {
+            for (int r = 0; r < runs.size(); r++) {
+                readers.add(new DataInputStream(new BufferedInputStream(Files.newInputStream(runs.get(r)), 1 << 16)));
+                advance(readers.get(r), r, heads);
+            }
+
+            long written = 0;
+            int nextNode = 0;
+            while (!heads.isEmpty()) {
+                long[] head = heads.poll();
+                int from = (int) head[0];
+                while (nextNode <= from) {
+                    offsets.writeLong(written);
+                    nextNode++;
+                }
+                edges.writeInt((int) head[2]);
+                edges.writeInt((int) head[3]);
+                written++;
+                advance(readers.get((int) head[1]), (int) head[1], heads);
+            }
+            while (nextNode <= nodeCount) {
+                offsets.writeLong(written);
+                nextNode++;
+            }
+        } finally {
+            for (DataInputStream reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static void advance(DataInputStream reader, int run, PriorityQueue<long[]> heads) throws IOException {
+        try {
+            int from = reader.readInt();
+            heads.add(new long[]{from, run, reader.readInt(), reader.readInt()});
+        } catch (EOFException e) {
+            // run exhausted
+        }
+    }
+
+    private static int readRun(DataInputStream in, int[] records, int runSize) throws IOException {
+        int size = 0;
+        try {
+            while (size < runSize) {
+                int from = in.readInt();
+                records[size * 3] = from;
+                records[size * 3 + 1] = in.readInt();
+                records[size * 3 + 2] = in.readInt();
+                size++;
+            }
+        } catch (EOFException e) {
+            // last, partial run
+        }
+        return size;
+    }
+
+    private static DataInputStream openReader(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        if (in.readInt() != MAGIC) {
+            in.close();
+            throw new IOException("Not an edge file: " + file);
+        }
+        return in;
+    }
+
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final int nodeCount;
+
+        public Writer(Path file, int nodeCount) throws IOException {
+            this.nodeCount = nodeCount;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(nodeCount);
+        }
+
+        public void write(int from, int to, int weight) throws IOException {
+            if (from < 0 || from >= nodeCount || to < 0 || to >= nodeCount) {
+                throw new IllegalArgumentException("Unknown node id in edge " + from + " -> " + to);
+            }
+            out.writeInt(from);
+            out.writeInt(to);
+            out.writeInt(weight);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package graph.core;
+
+// Common part of the pluggable algorithm SPIs. Implementations are discovered with
+// ServiceLoader and must have a public no-arg constructor; EngineSelector asks each one
+// how well it suits a graph and instantiates a fresh engine per selection.
+public interface Engine {
+    String name();
+
+    // Higher wins; return a negative value if the engine cannot handle this shape
+    int preference(GraphShape shape);
+}
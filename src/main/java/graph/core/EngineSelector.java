@@ -0,0 +1,54 @@
+package graph.core;
+import java.util.*;
+
+// Picks the engine with the highest preference for a graph shape. Setting the system
+// property graph.engine.scc / graph.engine.topo / graph.engine.path to an engine name
+// forces that engine regardless of shape, e.g. -Dgraph.engine.scc=kosaraju for benchmarks.
+public class EngineSelector {
+    public static final String SCC_PROPERTY = "graph.engine.scc";
+    public static final String TOPO_PROPERTY = "graph.engine.topo";
+    public static final String PATH_PROPERTY = "graph.engine.path";
+
+    public static SccEngine selectScc(GraphShape shape) {
+        return select(SccEngine.class, SCC_PROPERTY, shape);
+    }
+
+    public static TopoEngine selectTopo(GraphShape shape) {
+        return select(TopoEngine.class, TOPO_PROPERTY, shape);
+    }
+
+    public static PathEngine selectPath(GraphShape shape) {
+        return select(PathEngine.class, PATH_PROPERTY, shape);
+    }
+
+    public static <T extends Engine> T select(Class<T> type, String overrideProperty, GraphShape shape) {
+        String forced = System.getProperty(overrideProperty);
+        List<T> engines = new ArrayList<>();
+        ServiceLoader.load(type).forEach(engines::add);
+
+        T best = null;
+        int bestPreference = -1;
+        for (T engine : engines) {
+            if (forced != null) {
+                if (engine.name().equals(forced)) {
+                    return engine;
+                }
+                continue;
+            }
+            int preference = engine.preference(shape);
+            if (preference > bestPreference) {
+                best = engine;
+                bestPreference = preference;
+            }
+        }
+
+        if (forced != null) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " '" + forced
+                    + "', available: " + engines.stream().map(Engine::name).toList());
+        }
+        if (best == null) {
+            throw new IllegalStateException("No " + type.getSimpleName() + " supports " + shape);
+        }
+        return best;
+    }
+}
@@ -2,41 +2,184 @@ package graph.core;
 import java.util.*;
 
 public class Graph {
-    private final Map<String, List<Edge>> adjacencyList = new HashMap<>();
-    private final Map<String, Integer> nodeDurations = new HashMap<>();
+    private SymbolTable symbols = new SymbolTable();
+    private List<List<Edge>> adjacencyList = new ArrayList<>();
+    private int[] nodeDurations = new int[16];
+    private int edgeCount = 0;
 
     public static class Edge {
         public final String from;
         public final String to;
+        public final int fromId;
+        public final int toId;
         public final int weight;
 
-        public Edge(String from, String to, int weight) {
+        public Edge(int fromId, int toId, String from, String to, int weight) {
+            this.fromId = fromId;
+            this.toId = toId;
             this.from = from;
             this.to = to;
             this.weight = weight;
         }
     }
     public void addNode(String node, int duration) {
-        adjacencyList.putIfAbsent(node, new ArrayList<>());
-        nodeDurations.put(node, duration);
+        int id = internNode(node);
+        nodeDurations[id] = duration;
     }
     public void addEdge(String from, String to, int weight) {
-        adjacencyList.get(from).add(new Edge(from, to, weight));
+        int fromId = internNode(from);
+        int toId = internNode(to);
+        adjacencyList.get(fromId).add(new Edge(fromId, toId,
+                symbols.nameOf(fromId), symbols.nameOf(toId), weight));
+        edgeCount++;
+    }
+    // Removes every from -> to edge, returns how many were removed
+    public int removeEdge(String from, String to) {
+        int fromId = getNodeId(from);
+        int toId = getNodeId(to);
+        if (fromId < 0 || toId < 0) {
+            return 0;
+        }
+        List<Edge> edges = adjacencyList.get(fromId);
+        int before = edges.size();
+        edges.removeIf(edge -> edge.toId == toId);
+        edgeCount -= before - edges.size();
+        return before - edges.size();
+    }
+    public void removeNode(String node) {
+        removeNodes(List.of(node));
+    }
+    // Removes the nodes and all their edges in one O(V + E) pass. Remaining nodes keep their
+    // relative order but are renumbered densely, so previously obtained ids become stale.
+    public void removeNodes(Collection<String> nodes) {
+        int n = getNodeCount();
+        boolean[] removed = new boolean[n];
+        boolean any = false;
+        for (String node : nodes) {
+            int id = getNodeId(node);
+            if (id >= 0) {
+                removed[id] = true;
+                any = true;
+            }
+        }
+        if (!any) {
+            return;
+        }
+
+        SymbolTable remaining = new SymbolTable();
+        int[] newIds = new int[n];
+        int[] durations = new int[Math.max(n, 16)];
+        for (int id = 0; id < n; id++) {
+            newIds[id] = removed[id] ? -1 : remaining.intern(symbols.nameOf(id));
+            if (newIds[id] >= 0) {
+                durations[newIds[id]] = nodeDurations[id];
+            }
+        }
+        List<List<Edge>> adjacency = new ArrayList<>(remaining.size());
+        edgeCount = 0;
+        for (int id = 0; id < n; id++) {
+            if (removed[id]) {
+                continue;
+            }
+            List<Edge> edges = new ArrayList<>();
+            for (Edge edge : adjacencyList.get(id)) {
+                if (!removed[edge.toId]) {
+                    edges.add(new Edge(newIds[id], newIds[edge.toId], edge.from, edge.to, edge.weight));
+                }
+            }
+            edgeCount += edges.size();
+            adjacency.add(edges);
+        }
+        symbols = remaining;
+        adjacencyList = adjacency;
+        nodeDurations = durations;
+    }
+    private int internNode(String node) {
+        int id = symbols.intern(node);
+        if (id == adjacencyList.size()) {
+            adjacencyList.add(new ArrayList<>());
+            if (id == nodeDurations.length) {
+                nodeDurations = Arrays.copyOf(nodeDurations, id * 2);
+            }
+        }
+        return id;
     }
     public Set<String> getNodes() {
-        return adjacencyList.keySet();
+        return nodeView;
+    }
+    public int getNodeCount() {
+        return symbols.size();
+    }
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    // Ids are dense (0..getNodeCount()-1) and follow insertion order
+    public int getNodeId(String node) {
+        return symbols.idOf(node);
+    }
+    public String getNodeName(int id) {
+        return symbols.nameOf(id);
     }
     public List<Edge> getEdges() {
         List<Edge> allEdges = new ArrayList<>();
-        for (List<Edge> edges : adjacencyList.values()) {
-            allEdges.addAll(edges);
+        for (int id = 0; id < getNodeCount(); id++) {
+            allEdges.addAll(getEdgesFrom(id));
         }
         return allEdges;
     }
     public List<Edge> getEdgesFrom(String node) {
-        return adjacencyList.getOrDefault(node, new ArrayList<>());
+        int id = getNodeId(node);
+        return id < 0 ? Collections.emptyList() : getEdgesFrom(id);
+    }
+    public List<Edge> getEdgesFrom(int id) {
+        return adjacencyList.get(id);
+    }
+    public int getOutDegree(int id) {
+        return adjacencyList.get(id).size();
+    }
+    public int getEdgeTarget(int id, int edgeIndex) {
+        return adjacencyList.get(id).get(edgeIndex).toId;
+    }
+    public int getEdgeWeight(int id, int edgeIndex) {
+        return adjacencyList.get(id).get(edgeIndex).weight;
     }
     public int getNodeDuration(String node) {
-        return nodeDurations.getOrDefault(node, 0);
+        int id = getNodeId(node);
+        return id < 0 ? 0 : getNodeDuration(id);
+    }
+    public int getNodeDuration(int id) {
+        return nodeDurations[id];
     }
-}
\ No newline at end of file
+
+    private final Set<String> nodeView = new AbstractSet<>() {
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < getNodeCount();
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return getNodeName(next++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return getNodeCount();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && getNodeId((String) o) >= 0;
+        }
+    };
+}
@@ -0,0 +1,56 @@
+package graph.core;
+
+// Cheap summary of a graph used to pick engines, computed in one pass over the edges.
+// backEdgeRatio is the share of edges u->v with id(v) <= id(u). Zero means insertion order
+// is already a topological order, so the graph is certainly acyclic; otherwise it is only
+// a rough hint of how cyclic the graph is. Use ofDag for graphs that are acyclic by
+// construction, such as a CondensationGraph.
+public class GraphShape {
+    public final int nodeCount;
+    public final int edgeCount;
+    public final double density;
+    public final double backEdgeRatio;
+    private final boolean knownAcyclic;
+
+    public GraphShape(int nodeCount, int edgeCount, double backEdgeRatio, boolean knownAcyclic) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.density = nodeCount == 0 ? 0 : (double) edgeCount / nodeCount;
+        this.backEdgeRatio = backEdgeRatio;
+        this.knownAcyclic = knownAcyclic || backEdgeRatio == 0;
+    }
+
+    public static GraphShape of(Graph graph) {
+        return measure(graph, false);
+    }
+
+    public static GraphShape ofDag(Graph dag) {
+        return measure(dag, true);
+    }
+
+    private static GraphShape measure(Graph graph, boolean knownAcyclic) {
+        int n = graph.getNodeCount();
+        int edges = 0;
+        int backEdges = 0;
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                if (graph.getEdgeTarget(node, i) <= node) {
+                    backEdges++;
+                }
+            }
+            edges += degree;
+        }
+        return new GraphShape(n, edges, edges == 0 ? 0 : (double) backEdges / edges, knownAcyclic);
+    }
+
+    public boolean isKnownAcyclic() {
+        return knownAcyclic;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("V=%d, E=%d, density=%.2f, backEdgeRatio=%.2f",
+                nodeCount, edgeCount, density, backEdgeRatio);
+    }
+}
@@ -0,0 +1,62 @@
+package graph.core;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// A file mapped in 1 GB segments so it can be addressed with long offsets beyond the
+// 2 GB limit of a single buffer. Values must be aligned to their size, which keeps every
+// int/long inside one segment.
+public class MappedFile {
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private MappedFile(Path file, long size, boolean writable) throws IOException {
+        this.size = size;
+        this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        OpenOption[] options = writable
+                ? new OpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE}
+                : new OpenOption[]{StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(mode, start, Math.min(size - start, 1L << SEGMENT_SHIFT));
+            }
+        }
+    }
+
+    // Creates (or truncates) a zero-filled file of the given size and maps it read-write
+    public static MappedFile create(Path file, long size) throws IOException {
+        Files.deleteIfExists(file);
+        return new MappedFile(file, size, true);
+    }
+
+    public static MappedFile open(Path file) throws IOException {
+        return new MappedFile(file, Files.size(file), false);
+    }
+
+    public long size() {
+        return size;
+    }
+    public int getInt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+    }
+    public void putInt(long offset, int value) {
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putInt((int) (offset & SEGMENT_MASK), value);
+    }
+    public long getLong(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+    }
+    public void putLong(long offset, long value) {
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putLong((int) (offset & SEGMENT_MASK), value);
+    }
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package graph.core;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Allocates the native buffers behind OffHeapGraph: direct memory, or memory-mapped
+// temp files when a spill directory is given. A spill file is unlinked right after
+// mapping, so the pages stay valid until the buffer is collected and nothing is left on disk.
+// Direct buffers count against -XX:MaxDirectMemorySize (default: the -Xmx value) and fail
+// with OutOfMemoryError past it; mapped buffers do not.
+class OffHeapBuffers {
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 7;
+
+    private final Path spillDir;
+
+    OffHeapBuffers(Path spillDir) {
+        this.spillDir = spillDir;
+    }
+
+    ByteBuffer allocate(long bytes) {
+        if (bytes > MAX_CAPACITY) {
+            throw new IllegalStateException("Off-heap section exceeds 2 GB: " + bytes + " bytes");
+        }
+        int capacity = (int) Math.max(bytes, 8);
+        if (spillDir == null) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        try {
+            Path file = Files.createTempFile(spillDir, "graph", ".bin");
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity).order(ByteOrder.nativeOrder());
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Doubles the buffer (at least up to minBytes) and copies the first usedBytes over
+    ByteBuffer grow(ByteBuffer old, int usedBytes, long minBytes) {
+        long capacity = old.capacity();
+        while (capacity < minBytes) {
+            capacity = Math.min(capacity * 2, MAX_CAPACITY);
+            if (capacity == MAX_CAPACITY && capacity < minBytes) {
+                throw new IllegalStateException("Off-heap section exceeds 2 GB: " + minBytes + " bytes");
+            }
+        }
+        ByteBuffer grown = allocate(capacity);
+        ByteBuffer source = old.duplicate();
+        source.clear().limit(usedBytes);
+        grown.put(source);
+        grown.clear();
+        return grown;
+    }
+}
@@ -0,0 +1,325 @@
+package graph.core;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+// Read-only graph whose CSR arrays, durations and id dictionary live in direct buffers
+// (or memory-mapped spill files), so the heap only holds this object and a few buffer
+// headers. Ids, traversal order and results match the Graph it was built from, and the
+// index-based accessors used by the algorithms read straight from the buffers.
+// Every section is a single buffer, which caps it at 2 GB. The binding limit is the
+// Builder's 12-byte (from, to, weight) staging buffer: about 178M edges per graph.
+// Without a spill directory the buffers are direct memory, which counts against
+// -XX:MaxDirectMemorySize and that defaults to -Xmx. So the direct backend only moves the
+// graph out of the GC's way; to hold a graph larger than the heap, pass a spill directory
+// (memory-mapped files, limited by disk and address space) or raise MaxDirectMemorySize.
+public class OffHeapGraph extends Graph {
+    private final int nodeCount;
+    private final int edgeCount;
+    private final ByteBuffer offsets;     // int[nodeCount + 1] into targets/weights
+    private final ByteBuffer targets;     // int[edgeCount]
+    private final ByteBuffer weights;     // int[edgeCount]
+    private final ByteBuffer durations;   // int[nodeCount]
+    private final ByteBuffer names;       // UTF-8 names, back to back
+    private final ByteBuffer nameOffsets; // int[nodeCount + 1] into names
+    private final ByteBuffer nameIndex;   // open addressing table of id + 1, 0 = empty
+    private final int indexMask;
+
+    private OffHeapGraph(int nodeCount, int edgeCount, ByteBuffer offsets, ByteBuffer targets,
+                         ByteBuffer weights, ByteBuffer durations, ByteBuffer names,
+                         ByteBuffer nameOffsets, ByteBuffer nameIndex, int indexMask) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.durations = durations;
+        this.names = names;
+        this.nameOffsets = nameOffsets;
+        this.nameIndex = nameIndex;
+        this.indexMask = indexMask;
+    }
+
+    // Direct memory, bounded by -XX:MaxDirectMemorySize (defaults to -Xmx)
+    public static OffHeapGraph copyOf(Graph graph) {
+        return copyOf(graph, null);
+    }
+
+    // Memory-mapped spill files in spillDir; null means direct memory
+    public static OffHeapGraph copyOf(Graph graph, Path spillDir) {
+        Builder builder = new Builder(spillDir);
+        int n = graph.getNodeCount();
+        for (int node = 0; node < n; node++) {
+            builder.addNode(graph.getNodeName(node), graph.getNodeDuration(node));
+        }
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                builder.addEdge(node, graph.getEdgeTarget(node, i), graph.getEdgeWeight(node, i));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void addNode(String node, int duration) {
+        throw new UnsupportedOperationException("OffHeapGraph is read-only, use OffHeapGraph.Builder");
+    }
+    @Override
+    public void addEdge(String from, String to, int weight) {
+        throw new UnsupportedOperationException("OffHeapGraph is read-only, use OffHeapGraph.Builder");
+    }
+    @Override
+    public int removeEdge(String from, String to) {
+        throw new UnsupportedOperationException("OffHeapGraph is read-only, use OffHeapGraph.Builder");
+    }
+    @Override
+    public void removeNodes(Collection<String> nodes) {
+        throw new UnsupportedOperationException("OffHeapGraph is read-only, use OffHeapGraph.Builder");
+    }
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    @Override
+    public int getNodeId(String node) {
+        return lookup(names, nameOffsets, nameIndex, indexMask, node.getBytes(StandardCharsets.UTF_8));
+    }
+    @Override
+    public String getNodeName(int id) {
+        int start = nameOffsets.getInt(id << 2);
+        byte[] bytes = new byte[nameOffsets.getInt((id + 1) << 2) - start];
+        names.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    @Override
+    public List<Edge> getEdgesFrom(int id) {
+        int degree = getOutDegree(id);
+        List<Edge> edges = new ArrayList<>(degree);
+        String from = getNodeName(id);
+        for (int i = 0; i < degree; i++) {
+            int to = getEdgeTarget(id, i);
+            edges.add(new Edge(id, to, from, getNodeName(to), getEdgeWeight(id, i)));
+        }
+        return edges;
+    }
+    @Override
+    public int getOutDegree(int id) {
+        return offsets.getInt((id + 1) << 2) - offsets.getInt(id << 2);
+    }
+    @Override
+    public int getEdgeTarget(int id, int edgeIndex) {
+        return targets.getInt((offsets.getInt(id << 2) + edgeIndex) << 2);
+    }
+    @Override
+    public int getEdgeWeight(int id, int edgeIndex) {
+        return weights.getInt((offsets.getInt(id << 2) + edgeIndex) << 2);
+    }
+    @Override
+    public int getNodeDuration(int id) {
+        return durations.getInt(id << 2);
+    }
+
+    private static int lookup(ByteBuffer names, ByteBuffer nameOffsets, ByteBuffer index, int mask, byte[] key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = index.getInt(slot << 2);
+            if (entry == 0) {
+                return -1;
+            }
+            int id = entry - 1;
+            if (nameEquals(names, nameOffsets.getInt(id << 2), nameOffsets.getInt((id + 1) << 2), key)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static boolean nameEquals(ByteBuffer names, int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (names.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the UTF-8 bytes, so stored names can be rehashed without decoding them
+    private static int hash(byte[] key) {
+        int h = 0x811c9dc5;
+        for (byte b : key) {
+            h = (h ^ (b & 0xff)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(ByteBuffer names, int start, int end) {
+        int h = 0x811c9dc5;
+        for (int i = start; i < end; i++) {
+            h = (h ^ (names.get(i) & 0xff)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // Collects nodes and edges straight into off-heap buffers; build() turns the edge
+    // list into CSR with a counting sort, keeping each node's edges in insertion order.
+    public static class Builder {
+        private final OffHeapBuffers buffers;
+        private ByteBuffer names;
+        private ByteBuffer nameOffsets;
+        private ByteBuffer durations;
+        private ByteBuffer edges;         // (from, to, weight) triples
+        private ByteBuffer nameIndex;
+        private int indexMask;
+        private int nodeCount = 0;
+        private int edgeCount = 0;
+        private int nameBytes = 0;
+
+        // Direct memory, bounded by -XX:MaxDirectMemorySize (defaults to -Xmx); use
+        // Builder(spillDir) for graphs that should not fit in the heap
+        public Builder() {
+            this(null);
+        }
+
+        public Builder(Path spillDir) {
+            buffers = new OffHeapBuffers(spillDir);
+            names = buffers.allocate(1 << 12);
+            nameOffsets = buffers.allocate(1 << 10);
+            durations = buffers.allocate(1 << 10);
+            edges = buffers.allocate(12 << 10);
+            indexMask = (1 << 9) - 1;
+            nameIndex = buffers.allocate((indexMask + 1) << 2);
+            nameOffsets.putInt(0, 0);
+        }
+
+        public int addNode(String node, int duration) {
+            checkOpen();
+            byte[] key = node.getBytes(StandardCharsets.UTF_8);
+            int id = lookup(names, nameOffsets, nameIndex, indexMask, key);
+            if (id < 0) {
+                id = appendNode(key);
+            }
+            durations.putInt(id << 2, duration);
+            return id;
+        }
+
+        public void addEdge(String from, String to, int weight) {
+            checkOpen();
+            addEdge(internNode(from), internNode(to), weight);
+        }
+
+        public void addEdge(int fromId, int toId, int weight) {
+            checkOpen();
+            if (fromId < 0 || fromId >= nodeCount || toId < 0 || toId >= nodeCount) {
+                throw new IllegalArgumentException("Unknown node id in edge " + fromId + " -> " + toId);
+            }
+            long needed = (edgeCount + 1L) * 12;
+            if (needed > edges.capacity()) {
+                edges = buffers.grow(edges, edgeCount * 12, needed);
+            }
+            int at = edgeCount * 12;
+            edges.putInt(at, fromId);
+            edges.putInt(at + 4, toId);
+            edges.putInt(at + 8, weight);
+            edgeCount++;
+        }
+
+        public OffHeapGraph build() {
+            checkOpen();
+            ByteBuffer offsets = buffers.allocate((nodeCount + 1L) << 2);
+            ByteBuffer targets = buffers.allocate((long) edgeCount << 2);
+            ByteBuffer weights = buffers.allocate((long) edgeCount << 2);
+
+            // Out-degrees into offsets[from + 1], then prefix sums
+            for (int e = 0; e < edgeCount; e++) {
+                int slot = (edges.getInt(e * 12) + 1) << 2;
+                offsets.putInt(slot, offsets.getInt(slot) + 1);
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                int slot = (node + 1) << 2;
+                offsets.putInt(slot, offsets.getInt(slot) + offsets.getInt(node << 2));
+            }
+
+            // Scatter, using offsets[node] as the write cursor and restoring it afterwards
+            for (int e = 0; e < edgeCount; e++) {
+                int at = e * 12;
+                int cursorSlot = edges.getInt(at) << 2;
+                int position = offsets.getInt(cursorSlot);
+                targets.putInt(position << 2, edges.getInt(at + 4));
+                weights.putInt(position << 2, edges.getInt(at + 8));
+                offsets.putInt(cursorSlot, position + 1);
+            }
+            for (int node = nodeCount; node > 0; node--) {
+                offsets.putInt(node << 2, offsets.getInt((node - 1) << 2));
+            }
+            offsets.putInt(0, 0);
+
+            OffHeapGraph graph = new OffHeapGraph(nodeCount, edgeCount, offsets, targets, weights,
+                    durations, names, nameOffsets, nameIndex, indexMask);
+            edges = null;
+            return graph;
+        }
+
+        private int internNode(String node) {
+            byte[] key = node.getBytes(StandardCharsets.UTF_8);
+            int id = lookup(names, nameOffsets, nameIndex, indexMask, key);
+            return id >= 0 ? id : appendNode(key);
+        }
+
+        private int appendNode(byte[] key) {
+            int id = nodeCount;
+            if (nameBytes + (long) key.length > names.capacity()) {
+                names = buffers.grow(names, nameBytes, nameBytes + (long) key.length);
+            }
+            if ((id + 2L) << 2 > nameOffsets.capacity()) {
+                nameOffsets = buffers.grow(nameOffsets, (id + 1) << 2, (id + 2L) << 2);
+            }
+            if ((id + 1L) << 2 > durations.capacity()) {
+                durations = buffers.grow(durations, id << 2, (id + 1L) << 2);
+            }
+            names.put(nameBytes, key);
+            nameBytes += key.length;
+            nameOffsets.putInt((id + 1) << 2, nameBytes);
+            durations.putInt(id << 2, 0);
+            nodeCount++;
+
+            // Keep the index at most half full
+            if ((long) nodeCount * 2 > indexMask + 1) {
+                rehash((indexMask + 1) * 2);
+            } else {
+                insert(id);
+            }
+            return id;
+        }
+
+        private void rehash(int capacity) {
+            indexMask = capacity - 1;
+            nameIndex = buffers.allocate((long) capacity << 2);
+            for (int id = 0; id < nodeCount; id++) {
+                insert(id);
+            }
+        }
+
+        private void insert(int id) {
+            int slot = hash(names, nameOffsets.getInt(id << 2), nameOffsets.getInt((id + 1) << 2)) & indexMask;
+            while (nameIndex.getInt(slot << 2) != 0) {
+                slot = (slot + 1) & indexMask;
+            }
+            nameIndex.putInt(slot << 2, id + 1);
+        }
+
+        private void checkOpen() {
+            if (edges == null) {
+                throw new IllegalStateException("Builder has already been built");
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package graph.core;
+
+public interface PathEngine extends Engine {
+    ShortestPathResult findShortestPath(Graph dag, String source);
+
+    CriticalPathResult findCriticalPath(Graph dag);
+}
@@ -0,0 +1,18 @@
+package graph.core;
+
+import java.util.*;
+
+public class SCCResult {
+    public final List<List<String>> components;
+    public final int[] componentOf;
+    public final double executionTimeMs;
+    public final long operationsCount;
+
+    public SCCResult(List<List<String>> components, int[] componentOf,
+                     double executionTimeMs, long operationsCount) {
+        this.components = components;
+        this.componentOf = componentOf;
+        this.executionTimeMs = executionTimeMs;
+        this.operationsCount = operationsCount;
+    }
+}
@@ -0,0 +1,5 @@
+package graph.core;
+
+public interface SccEngine extends Engine {
+    SCCResult findSCC(Graph graph);
+}
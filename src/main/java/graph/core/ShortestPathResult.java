@@ -0,0 +1,18 @@
+package graph.core;
+
+import java.util.*;
+
+public class ShortestPathResult {
+    public final Map<String, Integer> distances;
+    public final Map<String, String> predecessors;
+    public final double executionTimeMs;
+    public final long operationsCount;
+
+    public ShortestPathResult(Map<String, Integer> distances, Map<String, String> predecessors,
+                              double executionTimeMs, long operationsCount) {
+        this.distances = distances;
+        this.predecessors = predecessors;
+        this.executionTimeMs = executionTimeMs;
+        this.operationsCount = operationsCount;
+    }
+}
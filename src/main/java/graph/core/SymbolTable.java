@@ -0,0 +1,31 @@
+package graph.core;
+import java.util.*;
+
+public class SymbolTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    // Returns the existing id or assigns the next free one
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = names.size();
+        ids.put(name, newId);
+        names.add(name);
+        return newId;
+    }
+
+    public int idOf(String name) {
+        return ids.getOrDefault(name, -1);
+    }
+
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,6 @@
+package graph.core;
+
+// The order may be shorter than the node count only if the graph has a cycle
+public interface TopoEngine extends Engine {
+    TopoResult sort(Graph graph);
+}
@@ -0,0 +1,17 @@
+package graph.core;
+
+import java.util.*;
+
+public class TopoResult {
+    public final List<String> order;
+    public final int[] orderIds;
+    public final double executionTimeMs;
+    public final long operationsCount;
+
+    public TopoResult(List<String> order, int[] orderIds, double executionTimeMs, long operationsCount) {
+        this.order = order;
+        this.orderIds = orderIds;
+        this.executionTimeMs = executionTimeMs;
+        this.operationsCount = operationsCount;
+    }
+}
@@ -4,130 +4,164 @@ import graph.core.*;
 import graph.topo.TopologicalSort;
 import java.util.*;
 
-public class DAGShortestPath extends BaseMetrics {
-    public ShortestPathResult findShortestPath(Graph dag, String source) {
-        reset();
+public class DAGShortestPath extends BaseMetrics implements PathEngine {
+    @Override
+    public String name() {
+        return "dag-relax";
+    }
 
-        TopologicalSort topoSort = new TopologicalSort();
-        var topoResult = topoSort.kahnTopologicalSort(dag);
-        incrementOperations((int) topoResult.operationsCount);
+    @Override
+    public int preference(GraphShape shape) {
+        return 10;
+    }
 
-        Map<String, Integer> dist = new HashMap<>();
-        Map<String, String> prev = new HashMap<>();
+    @Override
+    public ShortestPathResult findShortestPath(Graph dag, String source) {
+        reset();
 
-        for (String node : dag.getNodes()) {
-            dist.put(node, Integer.MAX_VALUE);
-            incrementOperations(1);
+        int n = dag.getNodeCount();
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        int sourceId = dag.getNodeId(source);
+        if (sourceId < 0) {
+            throw new IllegalArgumentException("Unknown source node");
         }
-        dist.put(source, 0);
-
-        for (String node : topoResult.order) {
-            incrementOperations(1);
-
-            if (dist.get(node) != Integer.MAX_VALUE) {
-                for (Graph.Edge edge : dag.getEdgesFrom(node)) {
-                    incrementOperations(1);
-                    int newDist = dist.get(node) + edge.weight;
-                    if (newDist < dist.get(edge.to)) {
-                        dist.put(edge.to, newDist);
-                        prev.put(edge.to, node);
-                        incrementOperations(2);
-                    }
-                }
+        long topoOperations = relax(dag, new int[]{sourceId}, 1, dist, prev);
+
+        Map<String, Integer> distances = new HashMap<>();
+        Map<String, String> predecessors = new HashMap<>();
+        for (int node = 0; node < n; node++) {
+            distances.put(dag.getNodeName(node), dist[node]);
+            if (prev[node] >= 0) {
+                predecessors.put(dag.getNodeName(node), dag.getNodeName(prev[node]));
             }
         }
 
-        return new ShortestPathResult(dist, prev, getExecutionTimeMs(),
-                getOperationsCount() + topoResult.operationsCount);
+        return new ShortestPathResult(distances, predecessors, getExecutionTimeMs(),
+                getOperationsCount() + topoOperations);
     }
 
+    @Override
     public CriticalPathResult findCriticalPath(Graph dag) {
         reset();
 
-        // Use negative weights for longest path
-        Graph negatedGraph = new Graph();
-        for (String node : dag.getNodes()) {
-            negatedGraph.addNode(node, dag.getNodeDuration(node));
-        }
-        for (Graph.Edge edge : dag.getEdges()) {
-            negatedGraph.addEdge(edge.from, edge.to, -edge.weight);
+        int n = dag.getNodeCount();
+        if (n == 0) {
+            return new CriticalPathResult(new ArrayList<>(), 0, getExecutionTimeMs(), getOperationsCount());
         }
 
-        // Find shortest path with negative weights (longest path in original)
-        String source = findSourceNode(dag);
-        var result = findShortestPath(negatedGraph, source);
-
-        // Convert back to positive
-        Map<String, Integer> longestDist = new HashMap<>();
-        for (var entry : result.distances.entrySet()) {
-            longestDist.put(entry.getKey(), -entry.getValue());
+        // Relax with negated weights from every source at once: shortest path there is the
+        // longest path in the original, over all weakly connected pieces of the DAG
+        int[] sources = findSourceNodes(dag);
+        int[] dist = new int[n];
+        int[] prev = new int[n];
+        relax(dag, sources, -1, dist, prev);
+
+        // Find critical path; unreachable nodes keep MAX_VALUE and never win. Equal lengths go
+        // to the smallest sink name: unlike ids, names are the same in every process, so the
+        // distributed merge can apply the same rule.
+        int sink = sources[0];
+        for (int node = 0; node < n; node++) {
+            if (dist[node] == Integer.MAX_VALUE) {
+                continue;
+            }
+            if (-dist[node] > -dist[sink] || (dist[node] == dist[sink]
+                    && dag.getNodeName(node).compareTo(dag.getNodeName(sink)) < 0)) {
+                sink = node;
+            }
         }
+        List<String> criticalPath = reconstructPath(dag, prev, sink);
 
-        // Find critical path
-        String sink = findSinkNode(longestDist);
-        List<String> criticalPath = reconstructPath(result.predecessors, source, sink);
-
-        return new CriticalPathResult(criticalPath, longestDist.get(sink),
+        return new CriticalPathResult(criticalPath, -dist[sink],
                 getExecutionTimeMs(), getOperationsCount());
     }
 
-    private String findSourceNode(Graph graph) {
-        Set<String> hasIncoming = new HashSet<>();
-        for (Graph.Edge edge : graph.getEdges()) {
-            hasIncoming.add(edge.to);
-        }
-        for (String node : graph.getNodes()) {
-            if (!hasIncoming.contains(node)) {
-                return node;
+    // Longest remaining path from every node to the end of the DAG, counting the node's own
+    // duration, edge weights and durations downstream. Indexed by node id; used as a
+    // critical-path-first priority when scheduling.
+    public int[] findRemainingLengths(Graph dag) {
+        reset();
+
+        TopologicalSort topoSort = new TopologicalSort();
+        var topoResult = topoSort.kahnTopologicalSort(dag);
+        incrementOperations((int) topoResult.operationsCount);
+
+        int[] remaining = new int[dag.getNodeCount()];
+        for (int position = topoResult.orderIds.length - 1; position >= 0; position--) {
+            int node = topoResult.orderIds[position];
+            int tail = 0;
+            int degree = dag.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                tail = Math.max(tail, dag.getEdgeWeight(node, i) + remaining[dag.getEdgeTarget(node, i)]);
+                incrementOperations(1);
             }
+            remaining[node] = dag.getNodeDuration(node) + tail;
+            incrementOperations(1);
         }
-        return graph.getNodes().iterator().next();
+        return remaining;
     }
 
-    private String findSinkNode(Map<String, Integer> dist) {
-        return dist.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(dist.keySet().iterator().next());
-    }
+    // Relaxation in topological order from the given sources with every weight multiplied by
+    // sign. Fills dist (MAX_VALUE = unreachable) and prev (-1 = none), returns the topo sort cost.
+    private long relax(Graph dag, int[] sources, int sign, int[] dist, int[] prev) {
+        TopologicalSort topoSort = new TopologicalSort();
+        var topoResult = topoSort.kahnTopologicalSort(dag);
+        incrementOperations((int) topoResult.operationsCount);
 
-    private List<String> reconstructPath(Map<String, String> prev, String source, String sink) {
-        List<String> path = new ArrayList<>();
-        String current = sink;
-        while (current != null) {
-            path.add(0, current);
-            current = prev.get(current);
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(prev, -1);
+        incrementOperations(dist.length);
+        for (int source : sources) {
+            dist[source] = 0;
+        }
+
+        for (int node : topoResult.orderIds) {
+            incrementOperations(1);
+
+            if (dist[node] != Integer.MAX_VALUE) {
+                int degree = dag.getOutDegree(node);
+                for (int i = 0; i < degree; i++) {
+                    incrementOperations(1);
+                    int target = dag.getEdgeTarget(node, i);
+                    int newDist = dist[node] + sign * dag.getEdgeWeight(node, i);
+                    if (newDist < dist[target]) {
+                        dist[target] = newDist;
+                        prev[target] = node;
+                        incrementOperations(2);
+                    }
+                }
+            }
         }
-        return path.get(0).equals(source) ? path : new ArrayList<>();
+        return topoResult.operationsCount;
     }
 
-    public static class ShortestPathResult {
-        public final Map<String, Integer> distances;
-        public final Map<String, String> predecessors;
-        public final double executionTimeMs;
-        public final long operationsCount;
-
-        public ShortestPathResult(Map<String, Integer> distances, Map<String, String> predecessors,
-                                  double executionTimeMs, long operationsCount) {
-            this.distances = distances;
-            this.predecessors = predecessors;
-            this.executionTimeMs = executionTimeMs;
-            this.operationsCount = operationsCount;
+    // Nodes without incoming edges; falls back to node 0 so a non-empty graph always has one
+    private int[] findSourceNodes(Graph graph) {
+        boolean[] hasIncoming = new boolean[graph.getNodeCount()];
+        for (int node = 0; node < hasIncoming.length; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                hasIncoming[graph.getEdgeTarget(node, i)] = true;
+            }
         }
+        int[] sources = new int[hasIncoming.length];
+        int count = 0;
+        for (int node = 0; node < hasIncoming.length; node++) {
+            if (!hasIncoming[node]) {
+                sources[count++] = node;
+            }
+        }
+        return count == 0 ? new int[]{0} : Arrays.copyOf(sources, count);
     }
 
-    public static class CriticalPathResult {
-        public final List<String> path;
-        public final int length;
-        public final double executionTimeMs;
-        public final long operationsCount;
-
-        public CriticalPathResult(List<String> path, int length,
-                                  double executionTimeMs, long operationsCount) {
-            this.path = path;
-            this.length = length;
-            this.executionTimeMs = executionTimeMs;
-            this.operationsCount = operationsCount;
+    private List<String> reconstructPath(Graph graph, int[] prev, int sink) {
+        List<String> path = new ArrayList<>();
+        int current = sink;
+        while (current >= 0) {
+            path.add(graph.getNodeName(current));
+            current = prev[current];
         }
+        Collections.reverse(path);
+        return path;
     }
-}
\ No newline at end of file
+}
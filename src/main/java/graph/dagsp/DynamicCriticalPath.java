@@ -0,0 +1,199 @@
+package graph.dagsp;
+
+import graph.core.*;
+import graph.topo.TopologicalSort;
+import java.util.*;
+
+// Longest-path (critical path) structure over a DAG, typically a CondensationGraph, that
+// is kept up to date as durations and edge weights change.
+// Earliest finish: EF(v) = duration(v) + max(0, max over edges u->v of EF(u) + weight(u->v)),
+// and the critical length is the largest EF. An update recomputes the changed node and then
+// only successors of nodes whose EF actually changed, in topological order, so each affected
+// node is recomputed once. Durations and weights are copied at construction; later updates
+// go through this class and do not touch the Graph.
+public class DynamicCriticalPath extends BaseMetrics {
+    private final Graph dag;
+    private final int[] topoPosition;
+    private final int[] predStart;
+    private final int[] predNodes;
+    private final int[] predWeights;
+    private final int[] durations;
+    private final int[] finish;
+    private final int[] criticalPred;
+    // Max segment tree over node ids, each slot holds the node with the largest EF below it
+    private final int[] tree;
+    private final int leaves;
+    private final boolean[] queued;
+
+    public DynamicCriticalPath(Graph dag) {
+        reset();
+        this.dag = dag;
+        int n = dag.getNodeCount();
+
+        var topoResult = new TopologicalSort().kahnTopologicalSort(dag);
+        incrementOperations((int) topoResult.operationsCount);
+        if (topoResult.orderIds.length != n) {
+            throw new IllegalArgumentException("Graph has cycles, build it over the condensation");
+        }
+        topoPosition = new int[n];
+        for (int i = 0; i < n; i++) {
+            topoPosition[topoResult.orderIds[i]] = i;
+        }
+
+        // Reverse adjacency (CSR) with its own copy of the weights
+        predStart = new int[n + 1];
+        for (int node = 0; node < n; node++) {
+            int degree = dag.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                predStart[dag.getEdgeTarget(node, i) + 1]++;
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            predStart[node + 1] += predStart[node];
+        }
+        predNodes = new int[predStart[n]];
+        predWeights = new int[predStart[n]];
+        int[] cursor = Arrays.copyOf(predStart, n);
+        for (int node = 0; node < n; node++) {
+            int degree = dag.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                int slot = cursor[dag.getEdgeTarget(node, i)]++;
+                predNodes[slot] = node;
+                predWeights[slot] = dag.getEdgeWeight(node, i);
+            }
+        }
+
+        durations = new int[n];
+        finish = new int[n];
+        criticalPred = new int[n];
+        queued = new boolean[n];
+        int size = 1;
+        while (size < Math.max(n, 1)) {
+            size <<= 1;
+        }
+        leaves = size;
+        tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+
+        for (int node : topoResult.orderIds) {
+            durations[node] = dag.getNodeDuration(node);
+            recompute(node);
+            tree[leaves + node] = node;
+        }
+        for (int i = leaves - 1; i > 0; i--) {
+            tree[i] = larger(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    // Returns how many nodes had their earliest finish changed
+    public int updateDuration(String node, int duration) {
+        int id = requireNode(node);
+        durations[id] = duration;
+        return propagate(id);
+    }
+
+    public int updateEdgeWeight(String from, String to, int weight) {
+        int fromId = requireNode(from);
+        int toId = requireNode(to);
+        for (int slot = predStart[toId]; slot < predStart[toId + 1]; slot++) {
+            if (predNodes[slot] == fromId) {
+                predWeights[slot] = weight;
+                return propagate(toId);
+            }
+        }
+        throw new IllegalArgumentException("No edge " + from + " -> " + to);
+    }
+
+    public int getCriticalLength() {
+        return tree[1] < 0 ? 0 : finish[tree[1]];
+    }
+
+    public List<String> getCriticalPath() {
+        List<String> path = new ArrayList<>();
+        for (int node = tree[1]; node >= 0; node = criticalPred[node]) {
+            path.add(dag.getNodeName(node));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public int getEarliestFinish(String node) {
+        return finish[requireNode(node)];
+    }
+
+    private int propagate(int start) {
+        reset();
+        int changed = 0;
+        PriorityQueue<Integer> pending = new PriorityQueue<>(Comparator.comparingInt(node -> topoPosition[node]));
+        pending.add(start);
+        queued[start] = true;
+
+        while (!pending.isEmpty()) {
+            int node = pending.poll();
+            queued[node] = false;
+            incrementOperations(1);
+            if (!recompute(node)) {
+                continue;
+            }
+            changed++;
+            updateTree(node);
+
+            int degree = dag.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                int successor = dag.getEdgeTarget(node, i);
+                incrementOperations(1);
+                if (!queued[successor]) {
+                    queued[successor] = true;
+                    pending.add(successor);
+                }
+            }
+        }
+        return changed;
+    }
+
+    // Recomputes EF(node) from its predecessors, returns whether it changed
+    private boolean recompute(int node) {
+        int best = 0;
+        int bestPred = -1;
+        for (int slot = predStart[node]; slot < predStart[node + 1]; slot++) {
+            int candidate = finish[predNodes[slot]] + predWeights[slot];
+            incrementOperations(1);
+            if (candidate > best || bestPred < 0 && candidate == best) {
+                best = candidate;
+                bestPred = predNodes[slot];
+            }
+        }
+        criticalPred[node] = bestPred;
+        int updated = durations[node] + best;
+        if (updated == finish[node]) {
+            return false;
+        }
+        finish[node] = updated;
+        return true;
+    }
+
+    private void updateTree(int node) {
+        for (int i = (leaves + node) >> 1; i > 0; i >>= 1) {
+            tree[i] = larger(tree[2 * i], tree[2 * i + 1]);
+            incrementOperations(1);
+        }
+    }
+
+    private int larger(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return finish[b] > finish[a] ? b : a;
+    }
+
+    private int requireNode(String node) {
+        int id = dag.getNodeId(node);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,231 @@
+package graph.dagsp;
+
+import graph.core.*;
+import graph.topo.TopologicalSort;
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Monte Carlo critical-path analysis for uncertain durations. The DAG (usually the
+// condensation) is sorted once and flattened into predecessor arrays over topological
+// positions. Scenarios are then evaluated in blocks laid out struct-of-arrays style:
+// value[position * block + scenario], so the inner loops run over contiguous scenarios.
+// Blocks run in parallel, each with its own random stream derived from the seed, so
+// results do not depend on thread scheduling. Critical-path hits are counted into a
+// per-thread array and summed when the parallel parts are combined, so threads never share
+// counters while simulating.
+// Makespan uses the same model as DynamicCriticalPath: EF(v) = duration(v) +
+// max(0, max over u->v of EF(u) + weight), with durations sampled and weights fixed.
+public class MonteCarloCriticalPath extends BaseMetrics {
+    private static final int MAX_BLOCK = 256;
+    private static final int BLOCK_CELLS = 1 << 22;
+
+    private final DurationModel model;
+    private final long seed;
+
+    @FunctionalInterface
+    public interface DurationModel {
+        double sample(int estimate, SplittableRandom random);
+
+        // Fills out[0..count) with samples for one node; models override it to hoist
+        // per-estimate work out of the loop
+        default void sampleRow(int estimate, SplittableRandom random, double[] out, int count) {
+            for (int s = 0; s < count; s++) {
+                out[s] = sample(estimate, random);
+            }
+        }
+
+        // Triangular between estimate * low and estimate * high, peaking at the estimate
+        static DurationModel triangular(double low, double high) {
+            return new DurationModel() {
+                @Override
+                public double sample(int estimate, SplittableRandom random) {
+                    double min = estimate * low;
+                    double max = estimate * high;
+                    if (max <= min) {
+                        return estimate;
+                    }
+                    double split = (estimate - min) / (max - min);
+                    double u = random.nextDouble();
+                    return u < split
+                            ? min + Math.sqrt(u * (max - min) * (estimate - min))
+                            : max - Math.sqrt((1 - u) * (max - min) * (max - estimate));
+                }
+
+                @Override
+                public void sampleRow(int estimate, SplittableRandom random, double[] out, int count) {
+                    double min = estimate * low;
+                    double max = estimate * high;
+                    if (max <= min) {
+                        Arrays.fill(out, 0, count, estimate);
+                        return;
+                    }
+                    double range = max - min;
+                    double below = estimate - min;
+                    double above = max - estimate;
+                    double split = below / range;
+                    // Same evaluation order as sample(), so both give identical values
+                    for (int s = 0; s < count; s++) {
+                        double u = random.nextDouble();
+                        out[s] = u < split
+                                ? min + Math.sqrt(u * range * below)
+                                : max - Math.sqrt((1 - u) * range * above);
+                    }
+                }
+            };
+        }
+    }
+
+    public MonteCarloCriticalPath(DurationModel model, long seed) {
+        this.model = model;
+        this.seed = seed;
+    }
+
+    public SimulationResult simulate(Graph dag, int scenarios) {
+        reset();
+
+        int n = dag.getNodeCount();
+        var topoResult = new TopologicalSort().kahnTopologicalSort(dag);
+        incrementOperations((int) topoResult.operationsCount);
+        if (topoResult.orderIds.length != n) {
+            throw new IllegalArgumentException("Graph has cycles, simulate its condensation instead");
+        }
+        int[] order = topoResult.orderIds;
+        int[] position = new int[n];
+        int[] estimates = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[order[i]] = i;
+            estimates[i] = dag.getNodeDuration(order[i]);
+        }
+
+        // Predecessors of every position, by position
+        int[] predStart = new int[n + 1];
+        for (int node = 0; node < n; node++) {
+            int degree = dag.getOutDegree(node);
+            for (int e = 0; e < degree; e++) {
+                predStart[position[dag.getEdgeTarget(node, e)] + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            predStart[i + 1] += predStart[i];
+        }
+        int[] predPosition = new int[predStart[n]];
+        int[] predWeight = new int[predStart[n]];
+        int[] cursor = Arrays.copyOf(predStart, n);
+        for (int node = 0; node < n; node++) {
+            int degree = dag.getOutDegree(node);
+            for (int e = 0; e < degree; e++) {
+                int slot = cursor[position[dag.getEdgeTarget(node, e)]]++;
+                predPosition[slot] = position[node];
+                predWeight[slot] = dag.getEdgeWeight(node, e);
+            }
+        }
+
+        int block = Math.max(1, Math.min(MAX_BLOCK, BLOCK_CELLS / Math.max(n, 1)));
+        int blocks = (scenarios + block - 1) / block;
+        double[] makespans = new double[scenarios];
+        long simulationStart = System.nanoTime();
+
+        long[] criticalHits = IntStream.range(0, blocks).parallel().collect(() -> new long[n], (hits, b) -> {
+            int first = b * block;
+            int size = Math.min(block, scenarios - first);
+            SplittableRandom random = new SplittableRandom(seed + b * 0x9E3779B97F4A7C15L);
+            double[] finish = new double[n * size];
+            int[] criticalPred = new int[n * size];
+            double[] start = new double[size];
+            double[] sampled = new double[size];
+
+            // Branch-free passes over contiguous scenarios: the max and its predecessor are
+            // selected, not branched on, into a separate row (finish is only read there, so
+            // loads and stores cannot alias), and the model samples a whole row at once.
+            for (int i = 0; i < n; i++) {
+                int row = i * size;
+                Arrays.fill(start, 0);
+                Arrays.fill(criticalPred, row, row + size, -1);
+                for (int slot = predStart[i]; slot < predStart[i + 1]; slot++) {
+                    int pred = predPosition[slot];
+                    int predRow = pred * size;
+                    int weight = predWeight[slot];
+                    for (int s = 0; s < size; s++) {
+                        double candidate = finish[predRow + s] + weight;
+                        boolean longer = candidate > start[s];
+                        start[s] = longer ? candidate : start[s];
+                        criticalPred[row + s] = longer ? pred : criticalPred[row + s];
+                    }
+                }
+                model.sampleRow(estimates[i], random, sampled, size);
+                for (int s = 0; s < size; s++) {
+                    finish[row + s] = start[s] + sampled[s];
+                }
+            }
+
+            // Sink of every scenario, then walk its critical chain back
+            int[] sink = new int[size];
+            for (int i = 1; i < n; i++) {
+                int row = i * size;
+                for (int s = 0; s < size; s++) {
+                    if (finish[row + s] > finish[sink[s] * size + s]) {
+                        sink[s] = i;
+                    }
+                }
+            }
+            for (int s = 0; s < size && n > 0; s++) {
+                makespans[first + s] = finish[sink[s] * size + s];
+                for (int i = sink[s]; i >= 0; i = criticalPred[i * size + s]) {
+                    hits[order[i]]++;
+                }
+            }
+        }, (left, right) -> {
+            for (int node = 0; node < n; node++) {
+                left[node] += right[node];
+            }
+        });
+        double simulationSeconds = (System.nanoTime() - simulationStart) / 1_000_000_000.0;
+        incrementOperations((int) Math.min(Integer.MAX_VALUE, (long) scenarios * (n + predStart[n])));
+
+        double[] criticality = new double[n];
+        for (int node = 0; node < n; node++) {
+            criticality[node] = scenarios == 0 ? 0 : (double) criticalHits[node] / scenarios;
+        }
+        Arrays.sort(makespans);
+        return new SimulationResult(dag, makespans, criticality,
+                simulationSeconds == 0 ? 0 : scenarios / simulationSeconds,
+                getExecutionTimeMs(), getOperationsCount());
+    }
+
+    public static class SimulationResult {
+        public final double[] sortedMakespans;
+        public final double[] criticality;
+        public final double scenariosPerSecond;
+        public final double executionTimeMs;
+        public final long operationsCount;
+        private final Graph dag;
+
+        public SimulationResult(Graph dag, double[] sortedMakespans, double[] criticality,
+                                double scenariosPerSecond, double executionTimeMs, long operationsCount) {
+            this.dag = dag;
+            this.sortedMakespans = sortedMakespans;
+            this.criticality = criticality;
+            this.scenariosPerSecond = scenariosPerSecond;
+            this.executionTimeMs = executionTimeMs;
+            this.operationsCount = operationsCount;
+        }
+
+        // Nearest-rank percentile, p in [0, 100]
+        public double percentile(double p) {
+            if (sortedMakespans.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sortedMakespans.length);
+            return sortedMakespans[Math.max(0, Math.min(sortedMakespans.length - 1, rank - 1))];
+        }
+
+        public double mean() {
+            return Arrays.stream(sortedMakespans).average().orElse(0);
+        }
+
+        // Share of scenarios in which the node lies on the critical path
+        public double getCriticality(String node) {
+            return criticality[dag.getNodeId(node)];
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package graph.dist;
+
+import graph.core.CriticalPathResult;
+import graph.core.Graph;
+import graph.core.SCCResult;
+import graph.core.TopoResult;
+import java.io.*;
+import java.net.*;
+import java.nio.file.Paths;
+import java.util.*;
+
+// Coordinator of the multi-process mode. Partitions the graph along weakly connected pieces
+// (GraphPartitioner), starts one worker JVM per partition on this machine, ships each
+// partition over a loopback socket and merges the summaries. Pieces share no edges, so
+// components and orders concatenate. A worker's critical path already spans every piece
+// packed into its partition, so the longest partition path is the global one. Ties between
+// partitions are broken like DAGShortestPath breaks them (smallest sink name), so the path
+// does not depend on the worker count.
+// Any graph.engine.* overrides are forwarded to the workers.
+public class AnalysisCoordinator {
+    private static final int CONNECT_TIMEOUT_MS = 60_000;
+
+    private final int workers;
+    private final List<String> jvmOptions;
+
+    public AnalysisCoordinator(int workers) {
+        this(workers, List.of());
+    }
+
+    public AnalysisCoordinator(int workers, List<String> jvmOptions) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker");
+        }
+        this.workers = workers;
+        this.jvmOptions = jvmOptions;
+    }
+
+    public DistributedResult analyze(Graph graph) throws IOException {
+        return analyze(graph, new GraphPartitioner().partition(graph, workers));
+    }
+
+    // Partitions from GraphPartitioner, for callers that inspect them first
+    public DistributedResult analyze(Graph graph, List<int[]> partitions) throws IOException {
+        long startTime = System.nanoTime();
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        List<PartitionProtocol.PartitionSummary> summaries = new ArrayList<>();
+
+        try (ServerSocket server = new ServerSocket(0, partitions.size(), InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MS);
+            for (int i = 0; i < partitions.size(); i++) {
+                processes.add(startWorker(server.getLocalPort()));
+            }
+            // Send everything first so the workers compute in parallel, then collect
+            for (int[] partition : partitions) {
+                Socket socket = server.accept();
+                sockets.add(socket);
+                PartitionProtocol.writePartition(new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream())), graph, partition);
+            }
+            for (Socket socket : sockets) {
+                summaries.add(PartitionProtocol.readSummary(new DataInputStream(
+                        new BufferedInputStream(socket.getInputStream()))));
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+
+        return merge(graph, partitions, summaries, (System.nanoTime() - startTime) / 1_000_000.0);
+    }
+
+    private Process startWorker(int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("graph.engine.")) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(AnalysisWorker.class.getName());
+        command.add(String.valueOf(port));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private DistributedResult merge(Graph graph, List<int[]> partitions,
+                                    List<PartitionProtocol.PartitionSummary> summaries, double wallTimeMs) {
+        List<List<String>> components = new ArrayList<>();
+        int[] componentOf = new int[graph.getNodeCount()];
+        List<String> order = new ArrayList<>();
+        List<Integer> orderIds = new ArrayList<>();
+        List<String> criticalPath = new ArrayList<>();
+        int criticalLength = -1;
+        long operations = 0;
+        double slowestPartitionMs = 0;
+
+        for (int p = 0; p < partitions.size(); p++) {
+            int[] nodes = partitions.get(p);
+            var summary = summaries.get(p);
+            int offset = components.size();
+
+            for (int[] component : summary.components) {
+                List<String> names = new ArrayList<>(component.length);
+                for (int local : component) {
+                    names.add(graph.getNodeName(nodes[local]));
+                    componentOf[nodes[local]] = components.size();
+                }
+                components.add(names);
+            }
+            for (int component : summary.topoOrder) {
+                order.add(components.get(offset + component).get(0));
+                orderIds.add(offset + component);
+            }
+            // Same tie rule as DAGShortestPath: equal lengths go to the smallest sink name
+            if (summary.criticalPath.length > 0 && (summary.criticalLength > criticalLength
+                    || (summary.criticalLength == criticalLength && sinkName(components, offset, summary)
+                    .compareTo(criticalPath.get(criticalPath.size() - 1)) < 0))) {
+                criticalLength = summary.criticalLength;
+                criticalPath.clear();
+                for (int component : summary.criticalPath) {
+                    criticalPath.add(components.get(offset + component).get(0));
+                }
+            }
+            operations += summary.operationsCount;
+            slowestPartitionMs = Math.max(slowestPartitionMs, summary.executionTimeMs);
+        }
+
+        return new DistributedResult(
+                new SCCResult(components, componentOf, slowestPartitionMs, operations),
+                new TopoResult(order, orderIds.stream().mapToInt(Integer::intValue).toArray(),
+                        slowestPartitionMs, operations),
+                new CriticalPathResult(criticalPath, Math.max(criticalLength, 0),
+                        slowestPartitionMs, operations),
+                partitions.size(), wallTimeMs);
+    }
+
+    private static String sinkName(List<List<String>> components, int offset,
+                                   PartitionProtocol.PartitionSummary summary) {
+        return components.get(offset + summary.criticalPath[summary.criticalPath.length - 1]).get(0);
+    }
+
+    // Per-stage results carry the slowest partition's analysis time and the summed operations
+    public static class DistributedResult {
+        public final SCCResult scc;
+        public final TopoResult topo;
+        public final CriticalPathResult criticalPath;
+        public final int workers;
+        public final double wallTimeMs;
+
+        public DistributedResult(SCCResult scc, TopoResult topo,
+                                 CriticalPathResult criticalPath, int workers, double wallTimeMs) {
+            this.scc = scc;
+            this.topo = topo;
+            this.criticalPath = criticalPath;
+            this.workers = workers;
+            this.wallTimeMs = wallTimeMs;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package graph.dist;
+
+import graph.core.*;
+import graph.scc.CondensationGraph;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.*;
+
+// Worker process: connects back to the coordinator on the given loopback port, receives one
+// partition, runs SCC, topological sort and critical path on it and sends the summary back.
+public class AnalysisWorker {
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            Graph partition = PartitionProtocol.readPartition(in);
+            PartitionProtocol.writeSummary(out, analyze(partition));
+        }
+    }
+
+    static PartitionProtocol.PartitionSummary analyze(Graph graph) {
+        var sccResult = EngineSelector.selectScc(GraphShape.of(graph)).findSCC(graph);
+        CondensationGraph condensation = new CondensationGraph(sccResult.components, graph);
+        GraphShape condShape = GraphShape.ofDag(condensation);
+        var topoResult = EngineSelector.selectTopo(condShape).sort(condensation);
+        var pathResult = EngineSelector.selectPath(condShape).findCriticalPath(condensation);
+
+        List<int[]> components = new ArrayList<>(sccResult.components.size());
+        for (List<String> component : sccResult.components) {
+            components.add(component.stream().mapToInt(graph::getNodeId).toArray());
+        }
+        // Condensation node ids are component indices
+        int[] criticalPath = pathResult.path.stream().mapToInt(condensation::getNodeId).toArray();
+
+        return new PartitionProtocol.PartitionSummary(components, topoResult.orderIds, pathResult.length,
+                criticalPath, sccResult.operationsCount + topoResult.operationsCount + pathResult.operationsCount,
+                sccResult.executionTimeMs + topoResult.executionTimeMs + pathResult.executionTimeMs);
+    }
+}
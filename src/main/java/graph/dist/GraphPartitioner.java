@@ -0,0 +1,72 @@
+package graph.dist;
+
+import graph.core.Graph;
+import java.util.*;
+
+// Splits a graph into at most k partitions along weakly connected pieces, so no edge
+// crosses a partition boundary and every SCC, topological order and path stays local.
+// Pieces are packed largest-first into the currently lightest partition by V + E.
+// There is no split inside a piece, so a connected graph always yields one partition; Main
+// then analyzes it in process rather than paying for a worker JVM that adds no parallelism.
+public class GraphPartitioner {
+
+    public List<int[]> partition(Graph graph, int k) {
+        int n = graph.getNodeCount();
+        int[] parent = new int[n];
+        for (int node = 0; node < n; node++) {
+            parent[node] = node;
+        }
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                int a = find(parent, node);
+                int b = find(parent, graph.getEdgeTarget(node, i));
+                if (a != b) {
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> pieces = new HashMap<>();
+        Map<Integer, Long> pieceCost = new HashMap<>();
+        for (int node = 0; node < n; node++) {
+            int root = find(parent, node);
+            pieces.computeIfAbsent(root, r -> new ArrayList<>()).add(node);
+            pieceCost.merge(root, 1L + graph.getOutDegree(node), Long::sum);
+        }
+        List<Integer> roots = new ArrayList<>(pieces.keySet());
+        roots.sort(Comparator.comparingLong((Integer root) -> pieceCost.get(root)).reversed()
+                .thenComparingInt(root -> root));
+
+        int bins = Math.min(k, roots.size());
+        List<List<Integer>> partitions = new ArrayList<>();
+        PriorityQueue<long[]> lightest = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(bin -> bin[0]).thenComparingLong(bin -> bin[1]));
+        for (int bin = 0; bin < bins; bin++) {
+            partitions.add(new ArrayList<>());
+            lightest.add(new long[]{0, bin});
+        }
+        for (int root : roots) {
+            long[] bin = lightest.poll();
+            partitions.get((int) bin[1]).addAll(pieces.get(root));
+            bin[0] += pieceCost.get(root);
+            lightest.add(bin);
+        }
+
+        List<int[]> result = new ArrayList<>();
+        for (List<Integer> nodes : partitions) {
+            int[] ids = nodes.stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(ids);
+            result.add(ids);
+        }
+        return result;
+    }
+
+    private int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+}
@@ -0,0 +1,111 @@
+package graph.dist;
+
+import graph.core.Graph;
+import java.io.*;
+import java.util.*;
+
+// Wire format between coordinator and workers. A partition travels as names, durations and
+// edges over partition-local ids; the worker answers with a PartitionSummary that also uses
+// local ids, which only the coordinator maps back to global names.
+class PartitionProtocol {
+
+    static void writePartition(DataOutputStream out, Graph graph, int[] nodes) throws IOException {
+        Map<Integer, Integer> localIds = new HashMap<>();
+        int edges = 0;
+        out.writeInt(nodes.length);
+        for (int i = 0; i < nodes.length; i++) {
+            localIds.put(nodes[i], i);
+            out.writeUTF(graph.getNodeName(nodes[i]));
+            out.writeInt(graph.getNodeDuration(nodes[i]));
+            edges += graph.getOutDegree(nodes[i]);
+        }
+        out.writeInt(edges);
+        for (int i = 0; i < nodes.length; i++) {
+            int degree = graph.getOutDegree(nodes[i]);
+            for (int e = 0; e < degree; e++) {
+                out.writeInt(i);
+                out.writeInt(localIds.get(graph.getEdgeTarget(nodes[i], e)));
+                out.writeInt(graph.getEdgeWeight(nodes[i], e));
+            }
+        }
+        out.flush();
+    }
+
+    static Graph readPartition(DataInputStream in) throws IOException {
+        Graph graph = new Graph();
+        int nodeCount = in.readInt();
+        String[] names = new String[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            names[i] = in.readUTF();
+            graph.addNode(names[i], in.readInt());
+        }
+        int edgeCount = in.readInt();
+        for (int e = 0; e < edgeCount; e++) {
+            String from = names[in.readInt()];
+            String to = names[in.readInt()];
+            graph.addEdge(from, to, in.readInt());
+        }
+        return graph;
+    }
+
+    static void writeSummary(DataOutputStream out, PartitionSummary summary) throws IOException {
+        out.writeInt(summary.components.size());
+        for (int[] component : summary.components) {
+            writeInts(out, component);
+        }
+        writeInts(out, summary.topoOrder);
+        out.writeInt(summary.criticalLength);
+        writeInts(out, summary.criticalPath);
+        out.writeLong(summary.operationsCount);
+        out.writeDouble(summary.executionTimeMs);
+        out.flush();
+    }
+
+    static PartitionSummary readSummary(DataInputStream in) throws IOException {
+        int componentCount = in.readInt();
+        List<int[]> components = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            components.add(readInts(in));
+        }
+        int[] topoOrder = readInts(in);
+        int criticalLength = in.readInt();
+        int[] criticalPath = readInts(in);
+        return new PartitionSummary(components, topoOrder, criticalLength, criticalPath,
+                in.readLong(), in.readDouble());
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    // Components hold local node ids; topoOrder and criticalPath hold component indices
+    static class PartitionSummary {
+        final List<int[]> components;
+        final int[] topoOrder;
+        final int criticalLength;
+        final int[] criticalPath;
+        final long operationsCount;
+        final double executionTimeMs;
+
+        PartitionSummary(List<int[]> components, int[] topoOrder, int criticalLength, int[] criticalPath,
+                         long operationsCount, double executionTimeMs) {
+            this.components = components;
+            this.topoOrder = topoOrder;
+            this.criticalLength = criticalLength;
+            this.criticalPath = criticalPath;
+            this.operationsCount = operationsCount;
+            this.executionTimeMs = executionTimeMs;
+        }
+    }
+}
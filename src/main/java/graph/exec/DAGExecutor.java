@@ -0,0 +1,146 @@
+package graph.exec;
+
+import graph.dagsp.DAGShortestPath;
+import graph.scc.CondensationGraph;
+import graph.topo.TopologicalSort;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Runs every component of a condensation as soon as all of its predecessors have finished.
+// Dependencies are tracked with one atomic counter per component. Ready components are
+// dispatched longest-remaining-path first (DAGShortestPath.findRemainingLengths), and at
+// most maxInFlight of them run at once, so a wide DAG cannot flood the pool.
+public class DAGExecutor {
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    @FunctionalInterface
+    public interface ComponentTask {
+        void run(List<String> members) throws Exception;
+    }
+
+    public DAGExecutor() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public DAGExecutor(ForkJoinPool pool, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.pool = pool;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ExecutionResult execute(CondensationGraph condensation, ComponentTask task)
+            throws InterruptedException, ExecutionException {
+        long startTime = System.nanoTime();
+        int n = condensation.getNodeCount();
+
+        int[] priority = new DAGShortestPath().findRemainingLengths(condensation);
+        AtomicIntegerArray pendingPredecessors = new AtomicIntegerArray(n);
+        for (int node = 0; node < n; node++) {
+            int degree = condensation.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                pendingPredecessors.incrementAndGet(condensation.getEdgeTarget(node, i));
+            }
+        }
+
+        // -1 is the stop signal after a failure and always sorts first
+        PriorityBlockingQueue<Integer> ready = new PriorityBlockingQueue<>(Math.max(n, 1),
+                Comparator.comparingInt(node -> node < 0 ? Integer.MIN_VALUE : -priority[node]));
+        for (int node = 0; node < n; node++) {
+            if (pendingPredecessors.get(node) == 0) {
+                ready.add(node);
+            }
+        }
+
+        Semaphore slots = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger failedComponent = new AtomicInteger(-1);
+        long[] runNanos = new long[n];
+
+        for (int dispatched = 0; dispatched < n; dispatched++) {
+            slots.acquire();
+            int component = ready.take();
+            if (component < 0) {
+                slots.release();
+                break;
+            }
+            pool.execute(() -> {
+                long taskStart = System.nanoTime();
+                try {
+                    task.run(condensation.getComponents().get(component));
+                    runNanos[component] = System.nanoTime() - taskStart;
+
+                    int degree = condensation.getOutDegree(component);
+                    for (int i = 0; i < degree; i++) {
+                        int successor = condensation.getEdgeTarget(component, i);
+                        if (pendingPredecessors.decrementAndGet(successor) == 0) {
+                            ready.add(successor);
+                        }
+                    }
+                } catch (Throwable t) {
+                    if (failure.compareAndSet(null, t)) {
+                        failedComponent.set(component);
+                        ready.add(-1);
+                    }
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+
+        // Wait for everything still in flight
+        slots.acquire(maxInFlight);
+        slots.release(maxInFlight);
+        if (failure.get() != null) {
+            throw new ExecutionException("Component " + condensation.getNodeName(failedComponent.get())
+                    + " failed", failure.get());
+        }
+
+        double makespanMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        return new ExecutionResult(makespanMs, criticalPathNanos(condensation, runNanos) / 1_000_000.0,
+                Arrays.stream(runNanos).sum() / 1_000_000.0, Math.min(maxInFlight, pool.getParallelism()));
+    }
+
+    // Longest chain of measured run times; no schedule can finish faster than this
+    private long criticalPathNanos(CondensationGraph condensation, long[] runNanos) {
+        long[] finish = new long[runNanos.length];
+        long longest = 0;
+        for (int node : new TopologicalSort().kahnTopologicalSort(condensation).orderIds) {
+            finish[node] += runNanos[node];
+            longest = Math.max(longest, finish[node]);
+            int degree = condensation.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                int successor = condensation.getEdgeTarget(node, i);
+                finish[successor] = Math.max(finish[successor], finish[node]);
+            }
+        }
+        return longest;
+    }
+
+    public static class ExecutionResult {
+        public final double makespanMs;
+        public final double criticalPathBoundMs;
+        public final double totalWorkMs;
+        public final int parallelism;
+
+        public ExecutionResult(double makespanMs, double criticalPathBoundMs,
+                               double totalWorkMs, int parallelism) {
+            this.makespanMs = makespanMs;
+            this.criticalPathBoundMs = criticalPathBoundMs;
+            this.totalWorkMs = totalWorkMs;
+            this.parallelism = parallelism;
+        }
+
+        // max(critical path, work / parallelism): the best makespan any schedule could reach
+        public double getLowerBoundMs() {
+            return Math.max(criticalPathBoundMs, totalWorkMs / parallelism);
+        }
+
+        public double getEfficiency() {
+            return makespanMs == 0 ? 1.0 : getLowerBoundMs() / makespanMs;
+        }
+    }
+}
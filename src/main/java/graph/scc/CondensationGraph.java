@@ -4,54 +4,67 @@ import graph.core.Graph;
 import java.util.*;
 
 public class CondensationGraph extends Graph {
-    private final Map<String, Integer> nodeToComponent = new HashMap<>();
+    private final Graph originalGraph;
+    private final int[] nodeToComponent;
     private final List<List<String>> components;
-    private final Map<Integer, String> componentToNode = new HashMap<>();
 
     public CondensationGraph(List<List<String>> components, Graph originalGraph) {
         this.components = components;
+        this.originalGraph = originalGraph;
+        this.nodeToComponent = new int[originalGraph.getNodeCount()];
 
+        // Component i becomes node i of the condensation, named after its first member
         for (int i = 0; i < components.size(); i++) {
             List<String> component = components.get(i);
 
-            String componentNodeName = component.get(0);
-            componentToNode.put(i, componentNodeName);
-
+            int maxDuration = 0;
             for (String node : component) {
-                nodeToComponent.put(node, i);
+                int id = originalGraph.getNodeId(node);
+                nodeToComponent[id] = i;
+                maxDuration = Math.max(maxDuration, originalGraph.getNodeDuration(id));
             }
-
-            int maxDuration = component.stream()
-                    .mapToInt(originalGraph::getNodeDuration)
-                    .max().orElse(0);
-            addNode(componentNodeName, maxDuration);
+            addNode(component.get(0), maxDuration);
         }
 
-        Set<String> addedEdges = new HashSet<>();
-        for (Graph.Edge edge : originalGraph.getEdges()) {
-            int fromComp = nodeToComponent.get(edge.from);
-            int toComp = nodeToComponent.get(edge.to);
+        Set<Long> addedEdges = new HashSet<>();
+        for (int node = 0; node < nodeToComponent.length; node++) {
+            int fromComp = nodeToComponent[node];
+            int degree = originalGraph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                int toComp = nodeToComponent[originalGraph.getEdgeTarget(node, i)];
 
-            if (fromComp != toComp) {
-                String fromNode = componentToNode.get(fromComp);
-                String toNode = componentToNode.get(toComp);
-                String edgeKey = fromNode + "->" + toNode;
+                if (fromComp != toComp) {
+                    long edgeKey = ((long) fromComp << 32) | toComp;
 
-                if (!addedEdges.contains(edgeKey)) {
-                    addEdge(fromNode, toNode, edge.weight);
-                    addedEdges.add(edgeKey);
+                    if (addedEdges.add(edgeKey)) {
+                        addEdge(getNodeName(fromComp), getNodeName(toComp),
+                                originalGraph.getEdgeWeight(node, i));
+                    }
                 }
             }
         }
     }
 
+    // Removals renumber ids, which would leave nodeToComponent and components stale
+    @Override
+    public int removeEdge(String from, String to) {
+        throw new UnsupportedOperationException("CondensationGraph is read-only, rebuild it from the original graph");
+    }
+    @Override
+    public void removeNodes(Collection<String> nodes) {
+        throw new UnsupportedOperationException("CondensationGraph is read-only, rebuild it from the original graph");
+    }
+
     public List<List<String>> getComponents() {
         return components;
     }
     public int getComponentIndex(String node) {
-        return nodeToComponent.get(node);
+        return nodeToComponent[originalGraph.getNodeId(node)];
+    }
+    public int getComponentIndex(int originalNodeId) {
+        return nodeToComponent[originalNodeId];
     }
     public String getComponentNodeName(int componentIndex) {
-        return componentToNode.get(componentIndex);
+        return getNodeName(componentIndex);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package graph.scc;
+
+import graph.core.*;
+import java.util.*;
+
+// Kosaraju's two-pass SCC with explicit stacks: a DFS over the graph for finish order, then
+// a sweep over the reversed graph in decreasing finish order. Components come out in
+// topological order, where SCCAlgorithm yields them in reverse.
+public class KosarajuSCC extends BaseMetrics implements SccEngine {
+
+    @Override
+    public String name() {
+        return "kosaraju";
+    }
+
+    @Override
+    public int preference(GraphShape shape) {
+        return 5;
+    }
+
+    @Override
+    public SCCResult findSCC(Graph graph) {
+        reset();
+
+        int n = graph.getNodeCount();
+        int[] finishOrder = new int[n];
+        int finished = 0;
+        boolean[] visited = new boolean[n];
+        int[] callNodes = new int[n];
+        int[] callEdges = new int[n];
+
+        // First pass: finish order on the original graph
+        for (int root = 0; root < n; root++) {
+            incrementOperations(1);
+            if (visited[root]) {
+                continue;
+            }
+            int callSize = 0;
+            visited[root] = true;
+            callNodes[callSize] = root;
+            callEdges[callSize++] = 0;
+            while (callSize > 0) {
+                int node = callNodes[callSize - 1];
+                int edge = callEdges[callSize - 1];
+                if (edge < graph.getOutDegree(node)) {
+                    callEdges[callSize - 1]++;
+                    int neighbor = graph.getEdgeTarget(node, edge);
+                    incrementOperations(1);
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        callNodes[callSize] = neighbor;
+                        callEdges[callSize++] = 0;
+                        incrementOperations(2);
+                    }
+                } else {
+                    finishOrder[finished++] = node;
+                    callSize--;
+                    incrementOperations(1);
+                }
+            }
+        }
+
+        // Reversed graph as CSR
+        int[] reverseStart = new int[n + 1];
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                reverseStart[graph.getEdgeTarget(node, i) + 1]++;
+            }
+        }
+        for (int node = 0; node < n; node++) {
+            reverseStart[node + 1] += reverseStart[node];
+        }
+        int[] reverseTargets = new int[reverseStart[n]];
+        int[] cursor = Arrays.copyOf(reverseStart, n);
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                reverseTargets[cursor[graph.getEdgeTarget(node, i)]++] = node;
+                incrementOperations(1);
+            }
+        }
+
+        // Second pass: every tree of the reversed DFS is one component
+        int[] componentOf = new int[n];
+        Arrays.fill(componentOf, -1);
+        List<List<String>> components = new ArrayList<>();
+        int[] stack = callNodes;
+        for (int i = n - 1; i >= 0; i--) {
+            int root = finishOrder[i];
+            incrementOperations(1);
+            if (componentOf[root] >= 0) {
+                continue;
+            }
+            List<String> component = new ArrayList<>();
+            int stackSize = 0;
+            componentOf[root] = components.size();
+            stack[stackSize++] = root;
+            while (stackSize > 0) {
+                int node = stack[--stackSize];
+                component.add(graph.getNodeName(node));
+                incrementOperations(2);
+                for (int slot = reverseStart[node]; slot < reverseStart[node + 1]; slot++) {
+                    int predecessor = reverseTargets[slot];
+                    incrementOperations(1);
+                    if (componentOf[predecessor] < 0) {
+                        componentOf[predecessor] = components.size();
+                        stack[stackSize++] = predecessor;
+                    }
+                }
+            }
+            components.add(component);
+        }
+
+        return new SCCResult(components, componentOf, getExecutionTimeMs(), getOperationsCount());
+    }
+}
@@ -3,79 +3,112 @@ package graph.scc;
 import graph.core.*;
 import java.util.*;
 
-public class SCCAlgorithm extends BaseMetrics {
+public class SCCAlgorithm extends BaseMetrics implements SccEngine {
     private int index = 0;
-    private final Stack<String> stack = new Stack<>();
-    private final Map<String, Integer> indices = new HashMap<>();
-    private final Map<String, Integer> lowLinks = new HashMap<>();
-    private final Set<String> onStack = new HashSet<>();
+    private int[] stack;
+    private int stackSize;
+    private int[] indices;
+    private int[] lowLinks;
+    private boolean[] onStack;
+    private int[] componentOf;
+    // Explicit DFS stack (node, next edge) so deep graphs cannot overflow the thread stack
+    private int[] callNodes;
+    private int[] callEdges;
     private final List<List<String>> components = new ArrayList<>();
     private Graph graph;
 
+    @Override
+    public String name() {
+        return "tarjan";
+    }
+
+    @Override
+    public int preference(GraphShape shape) {
+        return 10;
+    }
+
+    @Override
     public SCCResult findSCC(Graph graph) {
         reset();
         this.graph = graph;
+        int n = graph.getNodeCount();
         components.clear();
-        indices.clear();
-        lowLinks.clear();
-        onStack.clear();
-        stack.clear();
+        stack = new int[n];
+        stackSize = 0;
+        indices = new int[n];
+        Arrays.fill(indices, -1);
+        lowLinks = new int[n];
+        onStack = new boolean[n];
+        componentOf = new int[n];
+        callNodes = new int[n];
+        callEdges = new int[n];
         index = 0;
 
-        for (String node : graph.getNodes()) {
+        for (int node = 0; node < n; node++) {
             incrementOperations(1);
-            if (!indices.containsKey(node)) {
+            if (indices[node] < 0) {
                 strongConnect(node);
             }
         }
 
-        return new SCCResult(components, getExecutionTimeMs(), getOperationsCount());
+        return new SCCResult(new ArrayList<>(components), componentOf,
+                getExecutionTimeMs(), getOperationsCount());
     }
 
-    private void strongConnect(String node) {
-        indices.put(node, index);
-        lowLinks.put(node, index);
-        index++;
-        stack.push(node);
-        onStack.add(node);
-        incrementOperations(4);
+    private void strongConnect(int root) {
+        int callSize = 0;
+        visit(root);
+        callNodes[callSize] = root;
+        callEdges[callSize++] = 0;
 
-        for (Graph.Edge edge : graph.getEdgesFrom(node)) {
-            incrementOperations(1);
-            String neighbor = edge.to;
+        while (callSize > 0) {
+            int node = callNodes[callSize - 1];
+            int edge = callEdges[callSize - 1];
 
-            if (!indices.containsKey(neighbor)) {
-                strongConnect(neighbor);
-                lowLinks.put(node, Math.min(lowLinks.get(node), lowLinks.get(neighbor)));
-                incrementOperations(2);
-            } else if (onStack.contains(neighbor)) {
-                lowLinks.put(node, Math.min(lowLinks.get(node), indices.get(neighbor)));
-                incrementOperations(2);
+            if (edge < graph.getOutDegree(node)) {
+                callEdges[callSize - 1]++;
+                incrementOperations(1);
+                int neighbor = graph.getEdgeTarget(node, edge);
+
+                if (indices[neighbor] < 0) {
+                    visit(neighbor);
+                    callNodes[callSize] = neighbor;
+                    callEdges[callSize++] = 0;
+                } else if (onStack[neighbor]) {
+                    lowLinks[node] = Math.min(lowLinks[node], indices[neighbor]);
+                    incrementOperations(2);
+                }
+                continue;
             }
-        }
 
-        if (lowLinks.get(node).equals(indices.get(node))) {
-            List<String> component = new ArrayList<>();
-            String popNode;
-            do {
-                popNode = stack.pop();
-                onStack.remove(popNode);
-                component.add(popNode);
-                incrementOperations(3);
-            } while (!popNode.equals(node));
-            components.add(component);
+            callSize--;
+            if (lowLinks[node] == indices[node]) {
+                List<String> component = new ArrayList<>();
+                int popNode;
+                do {
+                    popNode = stack[--stackSize];
+                    onStack[popNode] = false;
+                    componentOf[popNode] = components.size();
+                    component.add(graph.getNodeName(popNode));
+                    incrementOperations(3);
+                } while (popNode != node);
+                components.add(component);
+            }
+            // Returning to the parent: fold the child's low-link into it
+            if (callSize > 0) {
+                int parent = callNodes[callSize - 1];
+                lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+                incrementOperations(2);
+            }
         }
     }
 
-    public static class SCCResult {
-        public final List<List<String>> components;
-        public final double executionTimeMs;
-        public final long operationsCount;
-
-        public SCCResult(List<List<String>> components, double executionTimeMs, long operationsCount) {
-            this.components = components;
-            this.executionTimeMs = executionTimeMs;
-            this.operationsCount = operationsCount;
-        }
+    private void visit(int node) {
+        indices[node] = index;
+        lowLinks[node] = index;
+        index++;
+        stack[stackSize++] = node;
+        onStack[node] = true;
+        incrementOperations(4);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package graph.scc;
+
+import graph.core.*;
+import java.util.Arrays;
+
+// Tarjan over an on-disk adjacency with an explicit DFS stack. Only O(V) int arrays are
+// kept in memory; edges are read from the mapped AdjacencyFile as the DFS reaches them.
+// Components are numbered in the same (reverse topological) order as SCCAlgorithm.
+public class SemiExternalSCC extends BaseMetrics {
+
+    public SemiExternalResult findSCC(AdjacencyFile graph) {
+        reset();
+
+        int n = graph.getNodeCount();
+        int[] indices = new int[n];
+        int[] lowLinks = new int[n];
+        int[] componentOf = new int[n];
+        int[] stack = new int[n];
+        int[] callNodes = new int[n];
+        int[] callEdges = new int[n];
+        Arrays.fill(indices, -1);
+        Arrays.fill(componentOf, -1);
+        int index = 0;
+        int stackSize = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            incrementOperations(1);
+            if (indices[root] >= 0) {
+                continue;
+            }
+            int callSize = 0;
+            indices[root] = lowLinks[root] = index++;
+            stack[stackSize++] = root;
+            callNodes[callSize] = root;
+            callEdges[callSize++] = 0;
+            incrementOperations(4);
+
+            while (callSize > 0) {
+                int node = callNodes[callSize - 1];
+                int edge = callEdges[callSize - 1];
+
+                if (edge < graph.getOutDegree(node)) {
+                    callEdges[callSize - 1]++;
+                    int neighbor = graph.getEdgeTarget(node, edge);
+                    incrementOperations(1);
+
+                    if (indices[neighbor] < 0) {
+                        indices[neighbor] = lowLinks[neighbor] = index++;
+                        stack[stackSize++] = neighbor;
+                        callNodes[callSize] = neighbor;
+                        callEdges[callSize++] = 0;
+                        incrementOperations(4);
+                    } else if (componentOf[neighbor] < 0) {
+                        // visited but not yet assigned: still on the Tarjan stack
+                        lowLinks[node] = Math.min(lowLinks[node], indices[neighbor]);
+                        incrementOperations(2);
+                    }
+                    continue;
+                }
+
+                callSize--;
+                if (lowLinks[node] == indices[node]) {
+                    int popNode;
+                    do {
+                        popNode = stack[--stackSize];
+                        componentOf[popNode] = componentCount;
+                        incrementOperations(3);
+                    } while (popNode != node);
+                    componentCount++;
+                }
+                if (callSize > 0) {
+                    int parent = callNodes[callSize - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+                    incrementOperations(2);
+                }
+            }
+        }
+
+        return new SemiExternalResult(componentOf, componentCount, getExecutionTimeMs(), getOperationsCount());
+    }
+
+    public static class SemiExternalResult {
+        public final int[] componentOf;
+        public final int componentCount;
+        public final double executionTimeMs;
+        public final long operationsCount;
+
+        public SemiExternalResult(int[] componentOf, int componentCount,
+                                  double executionTimeMs, long operationsCount) {
+            this.componentOf = componentOf;
+            this.componentCount = componentCount;
+            this.executionTimeMs = executionTimeMs;
+            this.operationsCount = operationsCount;
+        }
+    }
+}
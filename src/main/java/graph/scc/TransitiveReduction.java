@@ -0,0 +1,183 @@
+package graph.scc;
+
+import graph.core.*;
+import graph.topo.TopologicalSort;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+// Optional stage that drops redundant edges from a DAG such as a CondensationGraph.
+// reach[v] is a bitset over topological positions of everything v reaches. Nodes are
+// grouped by height (longest edge count to a sink); a level only depends on lower levels,
+// so each level is processed as parallel chunks. For every node, successors are visited in
+// increasing topological position and an edge is redundant if an earlier successor already
+// reaches its target. Memory is V^2 / 8 bytes for the bitsets.
+// With preserveLongestPaths an implied edge is only dropped if some other path has at least
+// its weight in edge weights alone; with non-negative durations that also keeps longest paths
+// that count node durations.
+public class TransitiveReduction extends BaseMetrics {
+
+    public ReductionResult reduce(Graph dag, boolean preserveLongestPaths) {
+        reset();
+
+        int n = dag.getNodeCount();
+        var topoResult = new TopologicalSort().kahnTopologicalSort(dag);
+        incrementOperations((int) topoResult.operationsCount);
+        if (topoResult.orderIds.length != n) {
+            throw new IllegalArgumentException("Graph has cycles, reduce its condensation instead");
+        }
+        int[] order = topoResult.orderIds;
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[order[i]] = i;
+        }
+
+        int[] height = new int[n];
+        int maxHeight = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int node = order[i];
+            int degree = dag.getOutDegree(node);
+            for (int e = 0; e < degree; e++) {
+                height[node] = Math.max(height[node], height[dag.getEdgeTarget(node, e)] + 1);
+            }
+            maxHeight = Math.max(maxHeight, height[node]);
+        }
+        List<List<Integer>> levels = new ArrayList<>();
+        for (int h = 0; h <= maxHeight; h++) {
+            levels.add(new ArrayList<>());
+        }
+        for (int node = 0; node < n; node++) {
+            levels.get(height[node]).add(node);
+        }
+
+        int words = (n + 63) >>> 6;
+        long[][] reach = new long[n][];
+        boolean[][] keep = new boolean[n][];
+        AtomicLong operations = new AtomicLong();
+        for (List<Integer> level : levels) {
+            level.parallelStream().forEach(node -> {
+                long[] bits = new long[words];
+                keep[node] = reduceNode(dag, node, position, reach, bits, operations);
+                reach[node] = bits;
+            });
+        }
+
+        if (preserveLongestPaths) {
+            IntStream.range(0, n).parallel().forEach(node ->
+                    restoreLongEdges(dag, node, order, position, keep[node], operations));
+        }
+
+        Graph reduced = new Graph();
+        for (int node = 0; node < n; node++) {
+            reduced.addNode(dag.getNodeName(node), dag.getNodeDuration(node));
+        }
+        int removed = 0;
+        for (int node = 0; node < n; node++) {
+            int degree = dag.getOutDegree(node);
+            for (int e = 0; e < degree; e++) {
+                if (keep[node][e]) {
+                    reduced.addEdge(dag.getNodeName(node), dag.getNodeName(dag.getEdgeTarget(node, e)),
+                            dag.getEdgeWeight(node, e));
+                } else {
+                    removed++;
+                }
+            }
+        }
+        incrementOperations((int) operations.get());
+
+        return new ReductionResult(reduced, removed, getExecutionTimeMs(), getOperationsCount());
+    }
+
+    // Fills bits with everything node reaches and returns which of its edges are needed
+    private boolean[] reduceNode(Graph dag, int node, int[] position, long[][] reach, long[] bits,
+                                 AtomicLong operations) {
+        int degree = dag.getOutDegree(node);
+        Integer[] edges = new Integer[degree];
+        for (int e = 0; e < degree; e++) {
+            edges[e] = e;
+        }
+        Arrays.sort(edges, Comparator.comparingInt(e -> position[dag.getEdgeTarget(node, e)]));
+
+        boolean[] keep = new boolean[degree];
+        long work = 0;
+        for (int e : edges) {
+            int target = dag.getEdgeTarget(node, e);
+            int bit = position[target];
+            work++;
+            if ((bits[bit >>> 6] & (1L << bit)) != 0) {
+                continue;
+            }
+            keep[e] = true;
+            bits[bit >>> 6] |= 1L << bit;
+            long[] targetReach = reach[target];
+            for (int w = 0; w < bits.length; w++) {
+                bits[w] |= targetReach[w];
+            }
+            work += bits.length;
+        }
+        operations.addAndGet(work);
+        return keep;
+    }
+
+    // Longest distances from node over the DAG, ignoring the direct edges being judged;
+    // a dropped edge is put back if no alternative path is at least as long
+    private void restoreLongEdges(Graph dag, int node, int[] order, int[] position, boolean[] keep,
+                                  AtomicLong operations) {
+        int degree = dag.getOutDegree(node);
+        int lastPosition = -1;
+        for (int e = 0; e < degree; e++) {
+            if (!keep[e]) {
+                lastPosition = Math.max(lastPosition, position[dag.getEdgeTarget(node, e)]);
+            }
+        }
+        if (lastPosition < 0) {
+            return;
+        }
+
+        long[] dist = new long[lastPosition - position[node] + 1];
+        Arrays.fill(dist, Long.MIN_VALUE);
+        int base = position[node];
+        long work = 0;
+        for (int e = 0; e < degree; e++) {
+            int offset = position[dag.getEdgeTarget(node, e)] - base;
+            if (keep[e] && offset < dist.length) {
+                dist[offset] = Math.max(dist[offset], dag.getEdgeWeight(node, e));
+            }
+        }
+        for (int offset = 1; offset < dist.length; offset++) {
+            if (dist[offset] == Long.MIN_VALUE) {
+                continue;
+            }
+            int current = order[base + offset];
+            int currentDegree = dag.getOutDegree(current);
+            for (int e = 0; e < currentDegree; e++) {
+                int target = position[dag.getEdgeTarget(current, e)] - base;
+                work++;
+                if (target < dist.length) {
+                    long candidate = dist[offset] + dag.getEdgeWeight(current, e);
+                    dist[target] = Math.max(dist[target], candidate);
+                }
+            }
+        }
+        for (int e = 0; e < degree; e++) {
+            if (!keep[e] && dist[position[dag.getEdgeTarget(node, e)] - base] < dag.getEdgeWeight(node, e)) {
+                keep[e] = true;
+            }
+        }
+        operations.addAndGet(work);
+    }
+
+    public static class ReductionResult {
+        public final Graph reduced;
+        public final int removedEdges;
+        public final double executionTimeMs;
+        public final long operationsCount;
+
+        public ReductionResult(Graph reduced, int removedEdges, double executionTimeMs, long operationsCount) {
+            this.reduced = reduced;
+            this.removedEdges = removedEdges;
+            this.executionTimeMs = executionTimeMs;
+            this.operationsCount = operationsCount;
+        }
+    }
+}
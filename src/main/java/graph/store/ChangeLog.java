@@ -0,0 +1,154 @@
+package graph.store;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// Append-only binary log of graph changes. The file starts with a header [int magic]
+// [long generation], followed by records [int length][payload][int crc32] with payload =
+// type ordinal, node, target (UTF) and value. Appends are fsynced per batch. Opening does
+// not scan the records; whoever replays the log cuts off a torn or corrupt tail (crash
+// mid-append) with truncate(). roll() replaces the log with an empty one of a new
+// generation once a checkpoint covers everything in it.
+public class ChangeLog implements Closeable {
+    public static final int HEADER_SIZE = 12;
+    private static final int MAGIC = 0x43484c47;
+
+    private final Path file;
+    private FileChannel channel;
+    private long generation;
+
+    public ChangeLog(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            // New file, or a crash before its header reached the disk
+            channel.truncate(0);
+            writeHeader(channel, 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                channel.read(header, header.position());
+            }
+            if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("Not a change log: " + file);
+            }
+            generation = header.getLong(4);
+        }
+        channel.position(channel.size());
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    // Drops everything from offset on, typically the torn tail found by read()
+    public void truncate(long offset) throws IOException {
+        channel.truncate(Math.max(offset, HEADER_SIZE));
+        channel.position(channel.size());
+    }
+
+    // Atomically replaces the log with an empty one of the given generation
+    public void roll(long newGeneration) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel fresh = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(fresh, newGeneration);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        generation = newGeneration;
+    }
+
+    public void append(List<GraphChange> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(payload);
+        for (GraphChange change : batch) {
+            payload.reset();
+            record.writeByte(change.type.ordinal());
+            record.writeUTF(change.node);
+            record.writeUTF(change.target);
+            record.writeInt(change.value);
+            CRC32 crc = new CRC32();
+            crc.update(payload.toByteArray());
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+            out.writeInt((int) crc.getValue());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    // Every complete record starting at offset, plus the offset just past the last one
+    public Tail read(long offset) throws IOException {
+        List<GraphChange> changes = new ArrayList<>();
+        long position = Math.max(offset, HEADER_SIZE);
+        long size = channel.size();
+        // Not closed on purpose: closing a channel-backed stream would close the log itself
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(position)), 1 << 16));
+        try {
+            while (position + 4 <= size) {
+                int length = in.readInt();
+                if (length <= 0 || position + 8 + length > size) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (in.readInt() != (int) crc.getValue()) {
+                    break;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                changes.add(new GraphChange(GraphChange.Type.values()[record.readByte()],
+                        record.readUTF(), record.readUTF(), record.readInt()));
+                position += 8 + length;
+            }
+        } finally {
+            channel.position(channel.size());
+        }
+        return new Tail(changes, position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeHeader(FileChannel target, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(generation);
+        header.flip();
+        while (header.hasRemaining()) {
+            target.write(header, header.position());
+        }
+        target.force(false);
+    }
+
+    public static class Tail {
+        public final List<GraphChange> changes;
+        public final long endOffset;
+
+        public Tail(List<GraphChange> changes, long endOffset) {
+            this.changes = changes;
+            this.endOffset = endOffset;
+        }
+    }
+}
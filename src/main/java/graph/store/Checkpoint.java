@@ -0,0 +1,118 @@
+package graph.store;
+
+import graph.core.Graph;
+import graph.core.SCCResult;
+import graph.core.TopoResult;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Snapshot of a graph together with its SCC partition and the topological order of its
+// condensation, tagged with the change-log generation and offset replay resumes from. Written to a temp file and
+// moved into place, so a crash leaves either the old or the new checkpoint.
+public class Checkpoint {
+    private static final int MAGIC = 0x43484b50;
+
+    public final Graph graph;
+    public final long logGeneration;
+    public final long logOffset;
+    public final SCCResult scc;
+    public final TopoResult topo;
+
+    public Checkpoint(Graph graph, long logGeneration, long logOffset, SCCResult scc,
+                      TopoResult topo) {
+        this.graph = graph;
+        this.logGeneration = logGeneration;
+        this.logOffset = logOffset;
+        this.scc = scc;
+        this.topo = topo;
+    }
+
+    public void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeLong(logGeneration);
+            out.writeLong(logOffset);
+
+            int n = graph.getNodeCount();
+            out.writeInt(n);
+            for (int node = 0; node < n; node++) {
+                out.writeUTF(graph.getNodeName(node));
+                out.writeInt(graph.getNodeDuration(node));
+            }
+            out.writeInt(graph.getEdgeCount());
+            for (int node = 0; node < n; node++) {
+                int degree = graph.getOutDegree(node);
+                for (int i = 0; i < degree; i++) {
+                    out.writeInt(node);
+                    out.writeInt(graph.getEdgeTarget(node, i));
+                    out.writeInt(graph.getEdgeWeight(node, i));
+                }
+            }
+
+            out.writeInt(scc.components.size());
+            for (List<String> component : scc.components) {
+                out.writeInt(component.size());
+                for (String node : component) {
+                    out.writeInt(graph.getNodeId(node));
+                }
+            }
+            out.writeInt(topo.orderIds.length);
+            for (int component : topo.orderIds) {
+                out.writeInt(component);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Checkpoint read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkpoint: " + file);
+            }
+            long logGeneration = in.readLong();
+            long logOffset = in.readLong();
+
+            Graph graph = new Graph();
+            int n = in.readInt();
+            for (int node = 0; node < n; node++) {
+                graph.addNode(in.readUTF(), in.readInt());
+            }
+            int edges = in.readInt();
+            for (int e = 0; e < edges; e++) {
+                String from = graph.getNodeName(in.readInt());
+                String to = graph.getNodeName(in.readInt());
+                graph.addEdge(from, to, in.readInt());
+            }
+
+            int[] componentOf = new int[n];
+            List<List<String>> components = new ArrayList<>();
+            int componentCount = in.readInt();
+            for (int c = 0; c < componentCount; c++) {
+                int size = in.readInt();
+                List<String> component = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    int node = in.readInt();
+                    componentOf[node] = c;
+                    component.add(graph.getNodeName(node));
+                }
+                components.add(component);
+            }
+            int[] orderIds = new int[in.readInt()];
+            List<String> order = new ArrayList<>(orderIds.length);
+            for (int i = 0; i < orderIds.length; i++) {
+                orderIds[i] = in.readInt();
+                order.add(components.get(orderIds[i]).get(0));
+            }
+
+            return new Checkpoint(graph, logGeneration, logOffset,
+                    new SCCResult(components, componentOf, 0, 0),
+                    new TopoResult(order, orderIds, 0, 0));
+        }
+    }
+}
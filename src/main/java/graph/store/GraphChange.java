@@ -0,0 +1,32 @@
+package graph.store;
+
+// One entry of the change log. Node changes use node and value (duration); edge changes
+// use node as the source, target as the destination and value as the weight.
+public class GraphChange {
+    public enum Type { ADD_NODE, REMOVE_NODE, ADD_EDGE, REMOVE_EDGE }
+
+    public final Type type;
+    public final String node;
+    public final String target;
+    public final int value;
+
+    public GraphChange(Type type, String node, String target, int value) {
+        this.type = type;
+        this.node = node;
+        this.target = target;
+        this.value = value;
+    }
+
+    public static GraphChange addNode(String node, int duration) {
+        return new GraphChange(Type.ADD_NODE, node, "", duration);
+    }
+    public static GraphChange removeNode(String node) {
+        return new GraphChange(Type.REMOVE_NODE, node, "", 0);
+    }
+    public static GraphChange addEdge(String from, String to, int weight) {
+        return new GraphChange(Type.ADD_EDGE, from, to, weight);
+    }
+    public static GraphChange removeEdge(String from, String to) {
+        return new GraphChange(Type.REMOVE_EDGE, from, to, 0);
+    }
+}
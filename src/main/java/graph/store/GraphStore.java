@@ -0,0 +1,183 @@
+package graph.store;
+
+import graph.core.*;
+import graph.scc.CondensationGraph;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Resident graph fed by an append-only change log, with periodic checkpoints in the same
+// directory. Opening loads the last checkpoint and replays only the log written after it;
+// without a checkpoint the whole log is replayed onto an empty graph.
+// Every batch is validated and logged before it is applied; after checkpointInterval applied changes the
+// store writes a new checkpoint with a fresh SCC partition and condensation order, then rolls
+// the log to the generation the checkpoint names, so restart cost stays bounded by the
+// interval rather than the whole history.
+public class GraphStore implements Closeable {
+    public static final String LOG_FILE = "changes.log";
+    public static final String CHECKPOINT_FILE = "checkpoint.bin";
+
+    private final Path checkpointFile;
+    private final ChangeLog log;
+    private final int checkpointInterval;
+    private final Graph graph;
+    private final int replayedChanges;
+    private Checkpoint lastCheckpoint;
+    private int changesSinceCheckpoint = 0;
+
+    private GraphStore(Path dir, int checkpointInterval) throws IOException {
+        this.checkpointFile = dir.resolve(CHECKPOINT_FILE);
+        this.checkpointInterval = checkpointInterval;
+        this.log = new ChangeLog(dir.resolve(LOG_FILE));
+
+        long replayFrom = ChangeLog.HEADER_SIZE;
+        if (Files.exists(checkpointFile)) {
+            lastCheckpoint = Checkpoint.read(checkpointFile);
+            graph = snapshot(lastCheckpoint.graph);
+            if (lastCheckpoint.logGeneration != log.getGeneration()) {
+                // Crashed between writing the checkpoint and rolling the log: it covers all of it
+                log.roll(lastCheckpoint.logGeneration);
+            } else {
+                replayFrom = lastCheckpoint.logOffset;
+            }
+        } else {
+            graph = new Graph();
+        }
+        ChangeLog.Tail tail = log.read(replayFrom);
+        log.truncate(tail.endOffset);
+        applyToGraph(tail.changes);
+        replayedChanges = tail.changes.size();
+        changesSinceCheckpoint = tail.changes.size();
+    }
+
+    public static GraphStore open(Path dir, int checkpointInterval) throws IOException {
+        Files.createDirectories(dir);
+        return new GraphStore(dir, checkpointInterval);
+    }
+
+    public void apply(List<GraphChange> batch) throws IOException {
+        validate(batch);
+        log.append(batch);
+        applyToGraph(batch);
+        changesSinceCheckpoint += batch.size();
+        if (changesSinceCheckpoint >= checkpointInterval) {
+            checkpoint();
+        }
+    }
+
+    public Checkpoint checkpoint() throws IOException {
+        var sccResult = EngineSelector.selectScc(GraphShape.of(graph)).findSCC(graph);
+        CondensationGraph condensation = new CondensationGraph(sccResult.components, graph);
+        var topoResult = EngineSelector.selectTopo(GraphShape.ofDag(condensation)).sort(condensation);
+
+        Checkpoint checkpoint = new Checkpoint(snapshot(graph), log.getGeneration() + 1, ChangeLog.HEADER_SIZE,
+                sccResult, topoResult);
+        checkpoint.write(checkpointFile);
+        log.roll(checkpoint.logGeneration);
+        lastCheckpoint = checkpoint;
+        changesSinceCheckpoint = 0;
+        return checkpoint;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+    // Null until the first checkpoint. It holds its own copy of the graph, so its ids and
+    // analysis stay consistent while the resident graph moves on
+    public Checkpoint getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+    public int getReplayedChanges() {
+        return replayedChanges;
+    }
+
+    // Removed nodes are only tombstoned while the batch runs and compacted away in one
+    // O(V + E) pass at its end, however they interleave with other changes. Re-adding a
+    // tombstoned node in the same batch compacts early, so it comes back without its old edges.
+    private void applyToGraph(List<GraphChange> changes) {
+        Set<String> tombstones = new HashSet<>();
+        for (GraphChange change : changes) {
+            switch (change.type) {
+                case ADD_NODE -> {
+                    if (tombstones.contains(change.node)) {
+                        graph.removeNodes(tombstones);
+                        tombstones.clear();
+                    }
+                    graph.addNode(change.node, change.value);
+                }
+                case REMOVE_NODE -> {
+                    if (graph.getNodeId(change.node) >= 0) {
+                        tombstones.add(change.node);
+                    }
+                }
+                case ADD_EDGE -> {
+                    // Graph.addEdge would silently create missing endpoints
+                    if (!isPresent(change.node, tombstones) || !isPresent(change.target, tombstones)) {
+                        throw new IllegalStateException("Logged edge " + change.node + " -> " + change.target
+                                + " refers to a missing node");
+                    }
+                    graph.addEdge(change.node, change.target, change.value);
+                }
+                case REMOVE_EDGE -> graph.removeEdge(change.node, change.target);
+                default -> throw new IllegalStateException("Unexpected change " + change.type);
+            }
+        }
+        if (!tombstones.isEmpty()) {
+            graph.removeNodes(tombstones);
+        }
+    }
+
+    // Edges may only join nodes that exist at that point of the batch. Checked before the
+    // batch is logged, so a rejected batch leaves neither the log nor the graph changed.
+    private void validate(List<GraphChange> batch) {
+        Set<String> added = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        for (GraphChange change : batch) {
+            switch (change.type) {
+                case ADD_NODE -> {
+                    added.add(change.node);
+                    removed.remove(change.node);
+                }
+                case REMOVE_NODE -> {
+                    removed.add(change.node);
+                    added.remove(change.node);
+                }
+                case ADD_EDGE -> {
+                    for (String node : List.of(change.node, change.target)) {
+                        if (!added.contains(node) && !isPresent(node, removed)) {
+                            throw new IllegalArgumentException("Edge " + change.node + " -> " + change.target
+                                    + " refers to missing node " + node);
+                        }
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private boolean isPresent(String node, Set<String> tombstones) {
+        return graph.getNodeId(node) >= 0 && !tombstones.contains(node);
+    }
+
+    // Same names, ids, durations and edge order as graph
+    private static Graph snapshot(Graph graph) {
+        Graph copy = new Graph();
+        int n = graph.getNodeCount();
+        for (int node = 0; node < n; node++) {
+            copy.addNode(graph.getNodeName(node), graph.getNodeDuration(node));
+        }
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                copy.addEdge(graph.getNodeName(node), graph.getNodeName(graph.getEdgeTarget(node, i)),
+                        graph.getEdgeWeight(node, i));
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+}
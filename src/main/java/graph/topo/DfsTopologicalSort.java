@@ -0,0 +1,77 @@
+package graph.topo;
+import graph.core.*;
+import java.util.*;
+
+// Reverse DFS postorder with an explicit stack. Reads every edge once, where Kahn's
+// algorithm reads them twice (in-degree pass + queue), so it is preferred for dense graphs
+// known to be acyclic. On meeting a back edge it falls back to Kahn's partial order.
+public class DfsTopologicalSort extends BaseMetrics implements TopoEngine {
+    private static final int WHITE = 0;
+    private static final int GRAY = 1;
+    private static final int BLACK = 2;
+
+    @Override
+    public String name() {
+        return "dfs";
+    }
+
+    @Override
+    public int preference(GraphShape shape) {
+        return shape.isKnownAcyclic() && shape.density >= 2 ? 20 : 5;
+    }
+
+    @Override
+    public TopoResult sort(Graph graph) {
+        reset();
+
+        int n = graph.getNodeCount();
+        int[] color = new int[n];
+        int[] order = new int[n];
+        int position = n;
+        int[] callNodes = new int[n];
+        int[] callEdges = new int[n];
+
+        for (int root = 0; root < n; root++) {
+            incrementOperations(1);
+            if (color[root] != WHITE) {
+                continue;
+            }
+            int callSize = 0;
+            color[root] = GRAY;
+            callNodes[callSize] = root;
+            callEdges[callSize++] = 0;
+            while (callSize > 0) {
+                int node = callNodes[callSize - 1];
+                int edge = callEdges[callSize - 1];
+                if (edge < graph.getOutDegree(node)) {
+                    callEdges[callSize - 1]++;
+                    int neighbor = graph.getEdgeTarget(node, edge);
+                    incrementOperations(1);
+                    if (color[neighbor] == GRAY) {
+                        var fallback = new TopologicalSort().kahnTopologicalSort(graph);
+                        incrementOperations((int) fallback.operationsCount);
+                        return new TopoResult(fallback.order, fallback.orderIds,
+                                getExecutionTimeMs(), getOperationsCount());
+                    }
+                    if (color[neighbor] == WHITE) {
+                        color[neighbor] = GRAY;
+                        callNodes[callSize] = neighbor;
+                        callEdges[callSize++] = 0;
+                        incrementOperations(2);
+                    }
+                } else {
+                    color[node] = BLACK;
+                    order[--position] = node;
+                    callSize--;
+                    incrementOperations(2);
+                }
+            }
+        }
+
+        List<String> topoOrder = new ArrayList<>(n);
+        for (int node : order) {
+            topoOrder.add(graph.getNodeName(node));
+        }
+        return new TopoResult(topoOrder, order, getExecutionTimeMs(), getOperationsCount());
+    }
+}
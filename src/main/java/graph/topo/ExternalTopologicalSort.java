@@ -0,0 +1,94 @@
+package graph.topo;
+import graph.core.*;
+import java.io.IOException;
+import java.nio.file.*;
+
+// Kahn's algorithm over an on-disk adjacency. The in-degree array and the queue/output
+// live in mapped files under workDir, so the heap stays O(1) in the graph size.
+public class ExternalTopologicalSort extends BaseMetrics {
+
+    public ExternalTopoResult sort(AdjacencyFile graph, Path workDir) throws IOException {
+        reset();
+
+        int n = graph.getNodeCount();
+        Path inDegreeFile = Files.createTempFile(workDir, "indegree", ".bin");
+        Path orderFile = Files.createTempFile(workDir, "topo", ".order");
+        MappedFile inDegree = MappedFile.create(inDegreeFile, (long) n << 2);
+        MappedFile order = MappedFile.create(orderFile, (long) n << 2);
+        long head = 0;
+        long tail = 0;
+
+        try {
+            // Calculate in-degree in one sequential pass over the edges
+            for (int node = 0; node < n; node++) {
+                int degree = graph.getOutDegree(node);
+                for (int i = 0; i < degree; i++) {
+                    long slot = (long) graph.getEdgeTarget(node, i) << 2;
+                    inDegree.putInt(slot, inDegree.getInt(slot) + 1);
+                    incrementOperations(2);
+                }
+            }
+
+            // Enqueue nodes with 0 in-degree
+            for (int node = 0; node < n; node++) {
+                if (inDegree.getInt((long) node << 2) == 0) {
+                    order.putInt(tail++ << 2, node);
+                    incrementOperations(1);
+                }
+                incrementOperations(1);
+            }
+
+            // Process queue; order[head..tail) is still pending
+            while (head < tail) {
+                int current = order.getInt(head++ << 2);
+                incrementOperations(2);
+
+                int degree = graph.getOutDegree(current);
+                for (int i = 0; i < degree; i++) {
+                    long slot = (long) graph.getEdgeTarget(current, i) << 2;
+                    int remaining = inDegree.getInt(slot) - 1;
+                    inDegree.putInt(slot, remaining);
+                    incrementOperations(2);
+
+                    if (remaining == 0) {
+                        order.putInt(tail++ << 2, graph.getEdgeTarget(current, i));
+                        incrementOperations(1);
+                    }
+                }
+            }
+            order.force();
+        } finally {
+            Files.deleteIfExists(inDegreeFile);
+        }
+
+        return new ExternalTopoResult(orderFile, order, (int) tail, n,
+                getExecutionTimeMs(), getOperationsCount());
+    }
+
+    public static class ExternalTopoResult {
+        public final Path orderFile;
+        public final int size;
+        public final int nodeCount;
+        public final double executionTimeMs;
+        public final long operationsCount;
+        private final MappedFile order;
+
+        public ExternalTopoResult(Path orderFile, MappedFile order, int size, int nodeCount,
+                                  double executionTimeMs, long operationsCount) {
+            this.orderFile = orderFile;
+            this.order = order;
+            this.size = size;
+            this.nodeCount = nodeCount;
+            this.executionTimeMs = executionTimeMs;
+            this.operationsCount = operationsCount;
+        }
+
+        // Nodes on a cycle never reach in-degree 0, so a short order means the graph is cyclic
+        public boolean isComplete() {
+            return size == nodeCount;
+        }
+        public int get(int position) {
+            return order.getInt((long) position << 2);
+        }
+    }
+}
@@ -2,66 +2,78 @@ package graph.topo;
 import graph.core.*;
 import java.util.*;
 
-public class TopologicalSort extends BaseMetrics {
+public class TopologicalSort extends BaseMetrics implements TopoEngine {
+
+    @Override
+    public String name() {
+        return "kahn";
+    }
+
+    @Override
+    public int preference(GraphShape shape) {
+        return 10;
+    }
+
+    @Override
+    public TopoResult sort(Graph graph) {
+        return kahnTopologicalSort(graph);
+    }
 
     public TopoResult kahnTopologicalSort(Graph graph) {
         reset();
 
-        Map<String, Integer> inDegree = new HashMap<>();
-        Queue<String> queue = new LinkedList<>();
-        List<String> topoOrder = new ArrayList<>();
+        int n = graph.getNodeCount();
+        int[] inDegree = new int[n];
+        // Kahn's queue doubles as the output: order[head..tail) is still pending
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
 
         // Initialize in-degree
-        for (String node : graph.getNodes()) {
-            inDegree.put(node, 0);
-            incrementOperations(1);
-        }
+        incrementOperations(n);
 
         // Calculate in-degree
-        for (Graph.Edge edge : graph.getEdges()) {
-            inDegree.put(edge.to, inDegree.get(edge.to) + 1);
-            incrementOperations(2);
+        for (int node = 0; node < n; node++) {
+            int degree = graph.getOutDegree(node);
+            for (int i = 0; i < degree; i++) {
+                inDegree[graph.getEdgeTarget(node, i)]++;
+                incrementOperations(2);
+            }
         }
 
         // Enqueue nodes with 0 in-degree
-        for (String node : graph.getNodes()) {
-            if (inDegree.get(node) == 0) {
-                queue.offer(node);
+        for (int node = 0; node < n; node++) {
+            if (inDegree[node] == 0) {
+                order[tail++] = node;
                 incrementOperations(1);
             }
             incrementOperations(1);
         }
 
         // Process queue
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            topoOrder.add(current);
+        while (head < tail) {
+            int current = order[head++];
             incrementOperations(2);
 
-            for (Graph.Edge edge : graph.getEdgesFrom(current)) {
-                String neighbor = edge.to;
-                inDegree.put(neighbor, inDegree.get(neighbor) - 1);
+            int degree = graph.getOutDegree(current);
+            for (int i = 0; i < degree; i++) {
+                int neighbor = graph.getEdgeTarget(current, i);
+                inDegree[neighbor]--;
                 incrementOperations(2);
 
-                if (inDegree.get(neighbor) == 0) {
-                    queue.offer(neighbor);
+                if (inDegree[neighbor] == 0) {
+                    order[tail++] = neighbor;
                     incrementOperations(1);
                 }
             }
         }
 
-        return new TopoResult(topoOrder, getExecutionTimeMs(), getOperationsCount());
-    }
-
-    public static class TopoResult {
-        public final List<String> order;
-        public final double executionTimeMs;
-        public final long operationsCount;
-
-        public TopoResult(List<String> order, double executionTimeMs, long operationsCount) {
-            this.order = order;
-            this.executionTimeMs = executionTimeMs;
-            this.operationsCount = operationsCount;
+        int[] orderIds = Arrays.copyOf(order, tail);
+        List<String> topoOrder = new ArrayList<>(tail);
+        for (int node : orderIds) {
+            topoOrder.add(graph.getNodeName(node));
         }
+
+        return new TopoResult(topoOrder, orderIds, getExecutionTimeMs(), getOperationsCount());
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,34 @@
+import graph.core.AdjacencyFile;
+import graph.core.EdgeFile;
+import graph.core.EngineSelector;
 import graph.core.Graph;
+import graph.core.GraphShape;
+import graph.core.OffHeapGraph;
 import graph.scc.SCCAlgorithm;
+import graph.scc.SemiExternalSCC;
+import graph.scc.TransitiveReduction;
 import graph.scc.CondensationGraph;
+import graph.store.ChangeLog;
+import graph.store.GraphChange;
+import graph.store.GraphStore;
+import graph.topo.ExternalTopologicalSort;
 import graph.topo.TopologicalSort;
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.DynamicCriticalPath;
+import graph.dagsp.MonteCarloCriticalPath;
+import graph.dist.AnalysisCoordinator;
+import graph.dist.GraphPartitioner;
+import graph.exec.DAGExecutor;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,4 +79,350 @@ public class GraphAlgorithmsTest {
         assertTrue(result.length >= 0);
         assertFalse(result.path.isEmpty());
     }
-}
\ No newline at end of file
+    @Test
+    public void testNodeIdsAreInterned() {
+        Graph graph = new Graph();
+        graph.addNode("A", 1);
+        graph.addNode("B", 2);
+        graph.addEdge(new String("A"), new String("B"), 4);
+
+        Graph.Edge edge = graph.getEdgesFrom("A").get(0);
+        assertEquals(2, graph.getNodeCount());
+        assertEquals(graph.getNodeId("B"), edge.toId);
+        assertSame(graph.getNodeName(edge.toId), edge.to);
+        assertEquals(-1, graph.getNodeId("C"));
+    }
+    @Test
+    public void testOffHeapGraphMatchesHeapGraph() throws Exception {
+        Graph graph = new Graph();
+        for (int i = 0; i < 6; i++) {
+            graph.addNode("T" + i, i + 1);
+        }
+        graph.addEdge("T0", "T1", 2);
+        graph.addEdge("T1", "T0", 1);
+        graph.addEdge("T1", "T2", 3);
+        graph.addEdge("T2", "T3", 1);
+        graph.addEdge("T3", "T4", 4);
+        graph.addEdge("T4", "T2", 2);
+        graph.addEdge("T4", "T5", 5);
+
+        Graph direct = OffHeapGraph.copyOf(graph);
+        Graph mapped = OffHeapGraph.copyOf(graph, Files.createTempDirectory("offheap"));
+
+        for (Graph copy : List.of(direct, mapped)) {
+            assertEquals(graph.getNodeCount(), copy.getNodeCount());
+            assertEquals(graph.getEdgeCount(), copy.getEdgeCount());
+            assertEquals(graph.getNodeId("T4"), copy.getNodeId("T4"));
+            assertEquals(-1, copy.getNodeId("T9"));
+            assertEquals(5, copy.getNodeDuration("T4"));
+
+            var sccs = new SCCAlgorithm().findSCC(copy).components;
+            assertEquals(new SCCAlgorithm().findSCC(graph).components, sccs);
+
+            CondensationGraph condensation = new CondensationGraph(sccs, copy);
+            assertEquals(new TopologicalSort().kahnTopologicalSort(condensation).order.size(), 3);
+            assertEquals(new DAGShortestPath().findCriticalPath(condensation).path,
+                    new DAGShortestPath().findCriticalPath(new CondensationGraph(sccs, graph)).path);
+        }
+        assertThrows(UnsupportedOperationException.class, () -> direct.addNode("X", 1));
+    }
+    @Test
+    public void testExternalSCCAndTopoMatchInMemory() throws Exception {
+        Graph graph = new Graph();
+        for (int i = 0; i < 7; i++) {
+            graph.addNode("T" + i, 1);
+        }
+        graph.addEdge("T5", "T6", 1);
+        graph.addEdge("T0", "T1", 1);
+        graph.addEdge("T1", "T2", 1);
+        graph.addEdge("T2", "T0", 1);
+        graph.addEdge("T2", "T3", 1);
+        graph.addEdge("T3", "T4", 1);
+        graph.addEdge("T4", "T3", 1);
+        graph.addEdge("T6", "T0", 1);
+
+        Path dir = Files.createTempDirectory("external");
+        Path edges = dir.resolve("graph.edges");
+        EdgeFile.write(graph, edges);
+        AdjacencyFile adjacency = EdgeFile.sortBySource(edges, dir, 3);
+        assertEquals(graph.getEdgeCount(), adjacency.getEdgeCount());
+
+        var external = new SemiExternalSCC().findSCC(adjacency);
+        var inMemory = new SCCAlgorithm().findSCC(graph);
+        assertEquals(inMemory.components.size(), external.componentCount);
+        assertArrayEquals(inMemory.componentOf, external.componentOf);
+
+        var cyclicOrder = new ExternalTopologicalSort().sort(adjacency, dir);
+        assertFalse(cyclicOrder.isComplete());
+
+        CondensationGraph condensation = new CondensationGraph(inMemory.components, graph);
+        Path dagEdges = dir.resolve("dag.edges");
+        EdgeFile.write(condensation, dagEdges);
+        var dagOrder = new ExternalTopologicalSort().sort(EdgeFile.sortBySource(dagEdges, dir, 2), dir);
+        assertTrue(dagOrder.isComplete());
+        int[] expected = new TopologicalSort().kahnTopologicalSort(condensation).orderIds;
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], dagOrder.get(i));
+        }
+    }
+    @Test
+    public void testDynamicCriticalPathUpdates() {
+        Graph graph = new Graph();
+        graph.addNode("A", 2);
+        graph.addNode("B", 3);
+        graph.addNode("C", 1);
+        graph.addNode("D", 1);
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("B", "D", 1);
+        graph.addEdge("C", "D", 1);
+
+        DynamicCriticalPath dynamic = new DynamicCriticalPath(graph);
+        assertEquals(8, dynamic.getCriticalLength());
+        assertEquals(List.of("A", "B", "D"), dynamic.getCriticalPath());
+
+        assertEquals(2, dynamic.updateDuration("C", 10));
+        assertEquals(15, dynamic.getCriticalLength());
+        assertEquals(List.of("A", "C", "D"), dynamic.getCriticalPath());
+
+        assertEquals(1, dynamic.updateEdgeWeight("A", "B", 2));
+        assertEquals(1, dynamic.updateEdgeWeight("C", "D", 0));
+        assertEquals(14, dynamic.getCriticalLength());
+        assertEquals(13, dynamic.getEarliestFinish("C"));
+    }
+    @Test
+    public void testExecutorRespectsDependencies() throws Exception {
+        Graph graph = new Graph();
+        for (String node : List.of("A", "B", "C", "D", "E")) {
+            graph.addNode(node, 1);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "A", 1);
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("A", "D", 1);
+        graph.addEdge("C", "E", 1);
+        graph.addEdge("D", "E", 1);
+        CondensationGraph condensation = new CondensationGraph(new SCCAlgorithm().findSCC(graph).components, graph);
+
+        List<String> finished = Collections.synchronizedList(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            var result = new DAGExecutor(pool, 2).execute(condensation, members -> {
+                String node = members.contains("A") ? "A" : members.get(0);
+                if (node.equals("C") || node.equals("D")) {
+                    assertTrue(finished.contains("A"));
+                } else if (node.equals("E")) {
+                    assertTrue(finished.containsAll(List.of("C", "D")));
+                }
+                Thread.sleep(5);
+                finished.add(node);
+            });
+
+            assertEquals(4, finished.size());
+            assertEquals("E", finished.get(3));
+            assertTrue(result.makespanMs >= result.criticalPathBoundMs);
+            assertTrue(result.getLowerBoundMs() >= 15);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    @Test
+    public void testEnginesAgreeAndCanBeForced() {
+        Graph graph = new Graph();
+        for (int i = 0; i < 6; i++) {
+            graph.addNode("T" + i, 1);
+        }
+        graph.addEdge("T0", "T1", 1);
+        graph.addEdge("T1", "T0", 1);
+        graph.addEdge("T1", "T2", 1);
+        graph.addEdge("T2", "T3", 1);
+        graph.addEdge("T3", "T4", 1);
+        graph.addEdge("T4", "T3", 1);
+        graph.addEdge("T4", "T5", 1);
+        GraphShape shape = GraphShape.of(graph);
+        assertFalse(shape.isKnownAcyclic());
+
+        assertEquals("tarjan", EngineSelector.selectScc(shape).name());
+        System.setProperty(EngineSelector.SCC_PROPERTY, "kosaraju");
+        try {
+            var kosaraju = EngineSelector.selectScc(shape).findSCC(graph);
+            var tarjan = new SCCAlgorithm().findSCC(graph);
+            assertEquals(tarjan.components.size(), kosaraju.components.size());
+            for (List<String> component : tarjan.components) {
+                assertTrue(kosaraju.components.stream().anyMatch(other ->
+                        new HashSet<>(other).equals(new HashSet<>(component))));
+            }
+
+            CondensationGraph condensation = new CondensationGraph(kosaraju.components, graph);
+            System.setProperty(EngineSelector.TOPO_PROPERTY, "dfs");
+            var order = EngineSelector.selectTopo(GraphShape.ofDag(condensation)).sort(condensation);
+            assertEquals(List.of("T0", "T2", "T3", "T5"), order.order);
+        } finally {
+            System.clearProperty(EngineSelector.SCC_PROPERTY);
+            System.clearProperty(EngineSelector.TOPO_PROPERTY);
+        }
+    }
+    @Test
+    public void testWorkerProcessesMatchSingleProcess() throws Exception {
+        Graph graph = new Graph();
+        for (int i = 0; i < 8; i++) {
+            graph.addNode("T" + i, 1);
+        }
+        graph.addEdge("T0", "T1", 2);
+        graph.addEdge("T1", "T0", 2);
+        graph.addEdge("T1", "T2", 3);
+        graph.addEdge("T3", "T4", 1);
+        graph.addEdge("T4", "T5", 1);
+        graph.addEdge("T6", "T7", 9);
+
+        var local = new SCCAlgorithm().findSCC(graph);
+        var localPath = new DAGShortestPath().findCriticalPath(new CondensationGraph(local.components, graph));
+        assertEquals(9, localPath.length);
+        assertEquals(List.of("T6", "T7"), localPath.path);
+
+        for (int workers = 1; workers <= 3; workers++) {
+            var distributed = new AnalysisCoordinator(workers).analyze(graph);
+            assertEquals(workers, distributed.workers);
+            assertEquals(local.components.size(), distributed.scc.components.size());
+            assertEquals(distributed.scc.components.size(), distributed.topo.order.size());
+            assertEquals(localPath.length, distributed.criticalPath.length, workers + " workers");
+            assertEquals(localPath.path, distributed.criticalPath.path, workers + " workers");
+            assertEquals(distributed.scc.componentOf[graph.getNodeId("T0")],
+                    distributed.scc.componentOf[graph.getNodeId("T1")]);
+        }
+
+        // Two pieces with equal longest paths: every worker count must pick the same one
+        Graph tied = new Graph();
+        for (String node : List.of("A", "B", "C", "D", "E")) {
+            tied.addNode(node, 1);
+        }
+        tied.addEdge("A", "B", 5);
+        tied.addEdge("C", "D", 2);
+        tied.addEdge("D", "E", 3);
+        var tiedLocal = new SCCAlgorithm().findSCC(tied);
+        var tiedPath = new DAGShortestPath().findCriticalPath(new CondensationGraph(tiedLocal.components, tied));
+        assertEquals(List.of("A", "B"), tiedPath.path);
+        assertEquals(2, new GraphPartitioner().partition(tied, 4).size());
+        tied.addEdge("B", "C", 1);
+        assertEquals(1, new GraphPartitioner().partition(tied, 4).size());
+        tied.removeEdge("B", "C");
+        for (int workers = 1; workers <= 2; workers++) {
+            var distributed = new AnalysisCoordinator(workers).analyze(tied);
+            assertEquals(tiedPath.length, distributed.criticalPath.length, workers + " workers");
+            assertEquals(tiedPath.path, distributed.criticalPath.path, workers + " workers");
+        }
+    }
+    @Test
+    public void testGraphStoreReplaysLogTailAfterCheckpoint() throws Exception {
+        Path dir = Files.createTempDirectory("store");
+        try (GraphStore store = GraphStore.open(dir, 5)) {
+            store.apply(List.of(GraphChange.addNode("A", 1), GraphChange.addNode("B", 2),
+                    GraphChange.addNode("C", 3), GraphChange.addEdge("A", "B", 1),
+                    GraphChange.addEdge("B", "A", 1)));
+            assertEquals(2, store.getLastCheckpoint().scc.components.size());
+            // The checkpoint covers the whole log, so it is rolled back to an empty one
+            assertEquals(ChangeLog.HEADER_SIZE, Files.size(dir.resolve(GraphStore.LOG_FILE)));
+
+            store.apply(List.of(GraphChange.addEdge("B", "C", 4), GraphChange.removeNode("A"),
+                    GraphChange.addNode("D", 1)));
+        }
+        long logSize = Files.size(dir.resolve(GraphStore.LOG_FILE));
+        Files.write(dir.resolve(GraphStore.LOG_FILE), new byte[]{0, 0, 0, 42, 1}, StandardOpenOption.APPEND);
+
+        try (GraphStore store = GraphStore.open(dir, 5)) {
+            Graph graph = store.getGraph();
+            assertEquals(3, store.getReplayedChanges());
+            assertEquals(logSize, Files.size(dir.resolve(GraphStore.LOG_FILE)));
+            assertEquals(List.of("B", "C", "D"), new ArrayList<>(graph.getNodes()));
+            assertEquals(1, graph.getEdgeCount());
+            assertEquals("C", graph.getEdgesFrom("B").get(0).to);
+            assertEquals(-1, graph.getNodeId("A"));
+
+            CondensationGraph condensation = new CondensationGraph(new SCCAlgorithm().findSCC(graph).components, graph);
+            assertThrows(UnsupportedOperationException.class, () -> condensation.removeNode("B"));
+            assertThrows(UnsupportedOperationException.class, () -> condensation.removeEdge("B", "C"));
+
+            store.apply(List.of(GraphChange.removeEdge("B", "C")));
+            assertEquals(0, graph.getEdgeCount());
+        }
+    }
+    @Test
+    public void testGraphStoreCheckpointSurvivesLaterRemovals() throws Exception {
+        try (GraphStore store = GraphStore.open(Files.createTempDirectory("store"), 3)) {
+            store.apply(List.of(GraphChange.addNode("A", 1), GraphChange.addNode("B", 1),
+                    GraphChange.addNode("C", 1)));
+            var checkpoint = store.getLastCheckpoint();
+            int componentOfC = checkpoint.scc.componentOf[checkpoint.graph.getNodeId("C")];
+            assertEquals(List.of("C"), checkpoint.scc.components.get(componentOfC));
+
+            store.apply(List.of(GraphChange.removeNode("A")));
+            assertEquals(List.of("B", "C"), new ArrayList<>(store.getGraph().getNodes()));
+            assertEquals(3, checkpoint.graph.getNodeCount());
+            assertEquals(componentOfC, checkpoint.scc.componentOf[checkpoint.graph.getNodeId("C")]);
+
+            // Interleaved removals; B is re-added after its removal and comes back without edges
+            store.apply(List.of(GraphChange.addNode("D", 2), GraphChange.addEdge("B", "D", 1),
+                    GraphChange.removeNode("B"), GraphChange.addEdge("C", "D", 1),
+                    GraphChange.removeNode("C"), GraphChange.addNode("B", 5)));
+            Graph graph = store.getGraph();
+            assertEquals(List.of("D", "B"), new ArrayList<>(graph.getNodes()));
+            assertEquals(0, graph.getEdgeCount());
+            assertEquals(5, graph.getNodeDuration("B"));
+
+            // An edge to a removed node is rejected instead of resurrecting it
+            assertThrows(IllegalArgumentException.class, () -> store.apply(List.of(GraphChange.addNode("X", 1),
+                    GraphChange.removeNode("X"), GraphChange.addEdge("D", "X", 1))));
+            assertThrows(IllegalArgumentException.class, () -> store.apply(List.of(GraphChange.addEdge("D", "Y", 1))));
+            assertEquals(List.of("D", "B"), new ArrayList<>(graph.getNodes()));
+        }
+    }
+    @Test
+    public void testTransitiveReductionDropsImpliedEdges() {
+        Graph graph = new Graph();
+        for (String node : List.of("A", "B", "C", "D")) {
+            graph.addNode(node, 1);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 1);
+        graph.addEdge("C", "D", 1);
+        graph.addEdge("A", "C", 10);
+        graph.addEdge("A", "D", 1);
+        graph.addEdge("B", "D", 2);
+
+        var reduced = new TransitiveReduction().reduce(graph, false);
+        assertEquals(3, reduced.removedEdges);
+        assertEquals(3, reduced.reduced.getEdgeCount());
+        assertEquals(4, new TopologicalSort().kahnTopologicalSort(reduced.reduced).order.size());
+
+        var weighted = new TransitiveReduction().reduce(graph, true);
+        assertEquals(2, weighted.removedEdges);
+        assertEquals(2, weighted.reduced.getEdgesFrom("A").size());
+        assertEquals("C", weighted.reduced.getEdgesFrom("A").get(1).to);
+        assertEquals(new DAGShortestPath().findCriticalPath(graph).length,
+                new DAGShortestPath().findCriticalPath(weighted.reduced).length);
+    }
+    @Test
+    public void testMonteCarloCriticalPath() {
+        Graph graph = new Graph();
+        graph.addNode("A", 2);
+        graph.addNode("B", 3);
+        graph.addNode("C", 3);
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 1);
+
+        var fixed = new MonteCarloCriticalPath((estimate, random) -> estimate, 1).simulate(graph, 100);
+        assertEquals(6.0, fixed.percentile(50), 1e-9);
+        assertEquals(new DynamicCriticalPath(graph).getCriticalLength(), fixed.percentile(100), 1e-9);
+        assertEquals(1.0, fixed.getCriticality("A"), 1e-9);
+
+        var model = MonteCarloCriticalPath.DurationModel.triangular(0.5, 2.0);
+        var sampled = new MonteCarloCriticalPath(model, 42).simulate(graph, 1000);
+        var again = new MonteCarloCriticalPath(model, 42).simulate(graph, 1000);
+        assertEquals(sampled.percentile(95), again.percentile(95), 1e-9);
+        assertTrue(sampled.percentile(10) <= sampled.percentile(50));
+        assertTrue(sampled.percentile(50) <= sampled.percentile(95));
+        assertEquals(1.0, sampled.getCriticality("A"), 1e-9);
+        assertEquals(1.0, sampled.getCriticality("B") + sampled.getCriticality("C"), 1e-9);
+        assertTrue(sampled.getCriticality("B") > 0.3 && sampled.getCriticality("C") > 0.3);
+    }
+}
@@ -0,0 +1,214 @@
+import graph.core.Graph;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.MonteCarloCriticalPath;
+import graph.exec.DAGExecutor;
+import graph.scc.CondensationGraph;
+import graph.scc.KosarajuSCC;
+import graph.scc.SCCAlgorithm;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Nightly scaling gate, excluded from the default build: run with mvn test -Pnightly.
+// Sizes go from 10^3 up to -Dscaling.maxNodes (default 10^6) by factors of 10. For every
+// graph family the operation count per (V + E) must stay flat across sizes, and each size
+// must stay within the family's time and retained-heap budget. Budgets are about twice the
+// per-element cost measured on a single core (plus a fixed allowance for JIT warm-up and
+// GC noise at small sizes), so a 2-3x regression fails the gate.
+@Tag("scaling")
+public class GraphScalingTest {
+    private static final int MAX_NODES = Integer.getInteger("scaling.maxNodes", 1_000_000);
+    // Operations per (V + E) may drift this much between the smallest and largest size
+    private static final double LINEAR_TOLERANCE = 1.25;
+    private static final double MAX_OPERATIONS_PER_ELEMENT = 20;
+    private static final long FIXED_HEAP_BYTES = 1 << 20;
+    private static final double FIXED_TIME_MS = 100;
+    private static final double MIN_SCENARIOS_PER_SECOND = 50;
+    // Speedup of the executor with all cores over one core, as a share of the core count
+    private static final double MIN_EXECUTOR_EFFICIENCY = 0.5;
+
+    private static volatile double spinSink;
+
+    @Test
+    public void testLongChain() {
+        // Measured: ~190 bytes and ~1.6 us per element
+        checkScaling("chain", 400, 0.0035, n -> {
+            Graph graph = nodes(n);
+            for (int i = 0; i + 1 < n; i++) {
+                graph.addEdge("T" + i, "T" + (i + 1), 1);
+            }
+            return graph;
+        });
+    }
+
+    @Test
+    public void testSingleHugeSCC() {
+        // Measured: ~11 bytes and ~0.2 us per element (one component, trivial condensation)
+        checkScaling("cycle", 25, 0.0004, n -> {
+            Graph graph = nodes(n);
+            for (int i = 0; i < n; i++) {
+                graph.addEdge("T" + i, "T" + ((i + 1) % n), 1);
+            }
+            return graph;
+        });
+    }
+
+    @Test
+    public void testDenseDAG() {
+        // Measured: ~67 bytes and ~1.2 us per element
+        checkScaling("dense-dag", 140, 0.0025, n -> {
+            Graph graph = nodes(n);
+            for (int i = 0; i < n; i++) {
+                for (int k = 1; k <= 8 && i + k < n; k++) {
+                    graph.addEdge("T" + i, "T" + (i + k), k);
+                }
+            }
+            return graph;
+        });
+    }
+
+    // Throughput benchmark on a 200k-node, 1M-edge DAG; about 90 scenarios/s on a single core
+    @Test
+    public void testMonteCarloThroughput() {
+        int n = 200_000;
+        Random random = new Random(7);
+        Graph graph = nodes(n);
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < 5 && i + 1 < n; k++) {
+                graph.addEdge("T" + i, "T" + (i + 1 + random.nextInt(Math.min(64, n - i - 1))), 1 + k);
+            }
+        }
+        assertEquals(1_000_000L, graph.getEdgeCount(), 5L * 64);
+
+        var simulation = new MonteCarloCriticalPath(MonteCarloCriticalPath.DurationModel.triangular(0.5, 2), 1);
+        var result = simulation.simulate(graph, 512);
+        System.out.println("Monte Carlo on 200k nodes / 1M edges: " + result.scenariosPerSecond + " scenarios/s");
+        assertTrue(result.scenariosPerSecond >= MIN_SCENARIOS_PER_SECOND, String.format(
+                "%.0f scenarios/s, floor %.0f", result.scenariosPerSecond, MIN_SCENARIOS_PER_SECOND));
+    }
+
+    // 20 layers of 200 CPU-bound tasks, each depending on two tasks of the layer before; run
+    // with one thread and with every core. Tasks take about a millisecond, so the single
+    // dispatcher thread is far from being the bottleneck.
+    @Test
+    public void testExecutorThroughputScalesWithCores() throws Exception {
+        int layers = 20;
+        int width = 200;
+        Random random = new Random(11);
+        Graph graph = nodes(layers * width);
+        for (int layer = 1; layer < layers; layer++) {
+            for (int i = 0; i < width; i++) {
+                int node = layer * width + i;
+                for (int k = 0; k < 2; k++) {
+                    graph.addEdge("T" + ((layer - 1) * width + random.nextInt(width)), "T" + node, 1);
+                }
+            }
+        }
+        CondensationGraph condensation = new CondensationGraph(new SCCAlgorithm().findSCC(graph).components, graph);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double[] makespanMs = new double[2];
+        int[] threads = {1, cores};
+        for (int run = 0; run < 2; run++) {
+            ForkJoinPool pool = new ForkJoinPool(threads[run]);
+            try {
+                makespanMs[run] = new DAGExecutor(pool, threads[run]).execute(condensation, members -> spin())
+                        .makespanMs;
+            } finally {
+                pool.shutdown();
+            }
+        }
+        double speedup = makespanMs[0] / makespanMs[1];
+        System.out.printf("DAGExecutor on %d tasks: %.0f ms on 1 thread, %.0f ms on %d (%.1fx)%n",
+                layers * width, makespanMs[0], makespanMs[1], cores, speedup);
+        assertTrue(speedup >= MIN_EXECUTOR_EFFICIENCY * cores, String.format(
+                "%.1fx speedup on %d cores, expected at least %.1fx", speedup, cores, MIN_EXECUTOR_EFFICIENCY * cores));
+    }
+
+    private static void spin() {
+        double x = 0;
+        for (int i = 0; i < 300_000; i++) {
+            x += Math.sqrt(i);
+        }
+        spinSink = x;
+    }
+
+    private void checkScaling(String family, long heapBytesPerElement, double timeMsPerElement,
+                              IntFunction<Graph> generator) {
+        List<double[]> ratios = new ArrayList<>();
+        for (int n = 1_000; n <= MAX_NODES; n *= 10) {
+            Graph graph = generator.apply(n);
+            long elements = (long) graph.getNodeCount() + graph.getEdgeCount();
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+
+            var scc = new SCCAlgorithm().findSCC(graph);
+            var kosaraju = new KosarajuSCC().findSCC(graph);
+            assertEquals(scc.components.size(), kosaraju.components.size(), family + " n=" + n);
+            CondensationGraph condensation = new CondensationGraph(scc.components, graph);
+            var topo = new TopologicalSort().kahnTopologicalSort(condensation);
+            assertEquals(condensation.getNodeCount(), topo.order.size(), family + " n=" + n);
+            var path = new DAGShortestPath().findCriticalPath(condensation);
+            assertFalse(path.path.isEmpty(), family + " n=" + n);
+
+            double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+            long retained = usedHeap() - heapBefore;
+            // Keep the results reachable until the heap has been measured
+            assertNotNull(List.of(scc, kosaraju, condensation, topo, path));
+
+            double timeBudgetMs = FIXED_TIME_MS + elements * timeMsPerElement;
+            assertTrue(elapsedMs <= timeBudgetMs, String.format("%s n=%d took %.0f ms, budget %.0f ms",
+                    family, n, elapsedMs, timeBudgetMs));
+            long heapBudget = FIXED_HEAP_BYTES + elements * heapBytesPerElement;
+            assertTrue(retained <= heapBudget, String.format("%s n=%d retained %d bytes, budget %d",
+                    family, n, retained, heapBudget));
+
+            // Condensation ops are measured against the condensation's own size
+            long condElements = (long) condensation.getNodeCount() + condensation.getEdgeCount();
+            double[] perElement = {
+                    (double) scc.operationsCount / elements,
+                    (double) kosaraju.operationsCount / elements,
+                    (double) topo.operationsCount / condElements,
+                    (double) path.operationsCount / condElements
+            };
+            for (double ratio : perElement) {
+                assertTrue(ratio <= MAX_OPERATIONS_PER_ELEMENT,
+                        family + " n=" + n + " uses " + ratio + " operations per element");
+            }
+            ratios.add(perElement);
+        }
+
+        double[] smallest = ratios.get(0);
+        double[] largest = ratios.get(ratios.size() - 1);
+        String[] names = {"tarjan", "kosaraju", "kahn", "critical path"};
+        for (int i = 0; i < names.length; i++) {
+            assertTrue(largest[i] <= smallest[i] * LINEAR_TOLERANCE, String.format(
+                    "%s: %s grows superlinearly (%.2f -> %.2f ops per element)",
+                    family, names[i], smallest[i], largest[i]));
+        }
+    }
+
+    private static Graph nodes(int n) {
+        Graph graph = new Graph();
+        for (int i = 0; i < n; i++) {
+            graph.addNode("T" + i, 1 + i % 3);
+        }
+        return graph;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}